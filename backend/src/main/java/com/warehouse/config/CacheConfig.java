@@ -0,0 +1,59 @@
+package com.warehouse.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Product lookups used by barcode scans, keyed by code and by name
+    public static final String PRODUCTS_BY_CODE = "productsByCode";
+    public static final String PRODUCTS_BY_NAME = "productsByName";
+
+    // Caffeine evicts by W-TinyLFU once a cache is full. Misses are cached too
+    // (as null values), so repeated scans of unknown codes stay off the database.
+    @Bean
+    public CacheManager cacheManager(@Value("${warehouse.cache.product-lookup.maximum-size:10000}") long maximumSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCTS_BY_CODE, PRODUCTS_BY_NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats());
+        cacheManager.setAllowNullValues(true);
+        // Evictions made inside a transaction wait for it to commit, so a concurrent
+        // lookup cannot put the old row back in between
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Hit, miss and eviction counters of every Caffeine cache, for /api/status
+    public static Map<String, Object> statistics(CacheManager cacheManager) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+                continue;
+            }
+            CacheStats stats = nativeCache.stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            result.put(name, entry);
+        }
+        return result;
+    }
+}
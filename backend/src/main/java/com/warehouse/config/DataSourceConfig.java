@@ -0,0 +1,125 @@
+package com.warehouse.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// SQLite connections in two pools: a single writer connection and a pool of
+// read-only connections, about one per core. In WAL mode readers keep reading the
+// last committed state while the writer appends, so long exports and scans no
+// longer block writes or each other. Read-only transactions
+// (@Transactional(readOnly = true)) use the reader pool; everything else,
+// including Flyway and Hibernate's schema update, uses the writer.
+@Configuration
+public class DataSourceConfig {
+
+    private static final String WRITER = "writer";
+    private static final String READER = "reader";
+
+    // A streamed export holds its reader for as long as the client takes to
+    // download, so small machines still get a few readers
+    private static final int MIN_READERS = 4;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${warehouse.datasource.journal-mode:WAL}")
+    private String journalMode;
+
+    @Value("${warehouse.datasource.synchronous:NORMAL}")
+    private String synchronous;
+
+    @Value("${warehouse.datasource.mmap-size:268435456}")
+    private long mmapSize;
+
+    @Value("${warehouse.datasource.cache-size:-16000}")
+    private int cacheSize;
+
+    @Value("${warehouse.datasource.temp-store:MEMORY}")
+    private String tempStore;
+
+    @Value("${warehouse.datasource.busy-timeout-ms:5000}")
+    private int busyTimeoutMillis;
+
+    // 0 means one reader connection per core, but at least MIN_READERS
+    @Value("${warehouse.datasource.reader-pool-size:0}")
+    private int readerPoolSize;
+
+    // Picks the pool when the first statement of a transaction runs, by which
+    // time Spring has recorded whether the transaction is read-only
+    private static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READER : WRITER;
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource writerDataSource() {
+        SQLiteConfig config = sqliteConfig();
+        // The journal mode is stored in the database file, so readers opened later inherit it
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(journalMode.toUpperCase()));
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous.toUpperCase()));
+
+        HikariDataSource dataSource = pool("sqlite-writer", config);
+        dataSource.setMaximumPoolSize(1);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource readerDataSource() {
+        HikariDataSource dataSource = pool("sqlite-reader", sqliteConfig());
+        // The driver only takes the read-only flag before the connection opens,
+        // so refuse writes with query_only instead
+        dataSource.setConnectionInitSql("PRAGMA query_only = ON");
+        dataSource.setMaximumPoolSize(readerPoolSize > 0 ? readerPoolSize
+                : Math.max(MIN_READERS, Runtime.getRuntime().availableProcessors()));
+        return dataSource;
+    }
+
+    // The connection is fetched lazily, on the first statement rather than when
+    // the transaction begins, so the routing sees the transaction's read-only flag
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writer,
+                                 @Qualifier("readerDataSource") DataSource reader) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(WRITER, writer, READER, reader));
+        routing.setDefaultTargetDataSource(writer);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Pragmas applied to every connection of both pools
+    private SQLiteConfig sqliteConfig() {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(busyTimeoutMillis);
+        config.setCacheSize(cacheSize);
+        config.setTempStore(SQLiteConfig.TempStore.valueOf(tempStore.toUpperCase()));
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSize));
+        return config;
+    }
+
+    private HikariDataSource pool(String name, SQLiteConfig config) {
+        SQLiteDataSource sqlite = new SQLiteDataSource(config);
+        sqlite.setUrl(url);
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setDataSource(sqlite);
+        dataSource.setMinimumIdle(1);
+        return dataSource;
+    }
+}
@@ -0,0 +1,22 @@
+package com.warehouse.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// Makes the transactions_fts index usable from JPQL and criteria queries:
+// transactions_fts_match(t.id, :query) is true when the row matches the FTS5
+// query. Registered through META-INF/services.
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder("transactions_fts_match",
+                        "?1 in (select rowid from transactions_fts where transactions_fts match ?2)")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
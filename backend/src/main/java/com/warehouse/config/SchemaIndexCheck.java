@@ -0,0 +1,102 @@
+package com.warehouse.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Verifies at startup that every index the queries rely on exists, and logs
+// the ones that don't. An index counts if it starts with the expected columns,
+// whatever its name, so UNIQUE constraint indexes and wider indexes qualify.
+@Component
+public class SchemaIndexCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexCheck.class);
+
+    // Index name -> table and leading columns; mirrors db/migration
+    private static final Map<String, String[]> REQUIRED_INDEXES = new LinkedHashMap<>();
+
+    static {
+        REQUIRED_INDEXES.put("idx_transactions_created_at_id", new String[] {"transactions", "created_at", "id"});
+        REQUIRED_INDEXES.put("idx_transactions_type_created_at", new String[] {"transactions", "type", "created_at", "id"});
+        REQUIRED_INDEXES.put("idx_transactions_material_type_created_at",
+                new String[] {"transactions", "material_type", "created_at", "id"});
+        REQUIRED_INDEXES.put("idx_transactions_type_material_type_created_at",
+                new String[] {"transactions", "type", "material_type", "created_at", "id"});
+        REQUIRED_INDEXES.put("idx_transactions_product_code", new String[] {"transactions", "product_code"});
+        REQUIRED_INDEXES.put("idx_products_product_code", new String[] {"products", "product_code"});
+        REQUIRED_INDEXES.put("idx_products_product_name", new String[] {"products", "product_name"});
+        REQUIRED_INDEXES.put("product_names(name)", new String[] {"product_names", "name"});
+        REQUIRED_INDEXES.put("idx_transactions_uid", new String[] {"transactions", "uid"});
+        REQUIRED_INDEXES.put("idx_products_uid", new String[] {"products", "uid"});
+        REQUIRED_INDEXES.put("idx_change_log_row", new String[] {"change_log", "table_name", "row_uid"});
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile List<String> missingIndexes = Collections.emptyList();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> missing = new ArrayList<>();
+        Map<String, List<List<String>>> indexesByTable = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, String[]> required : REQUIRED_INDEXES.entrySet()) {
+                String[] spec = required.getValue();
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(spec[0], this::indexColumns);
+                if (indexes.stream().noneMatch(columns -> startsWith(columns, spec))) {
+                    missing.add(required.getKey());
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not check database indexes", e);
+            return;
+        }
+
+        missingIndexes = Collections.unmodifiableList(missing);
+        if (missing.isEmpty()) {
+            logger.info("All {} required database indexes are present", REQUIRED_INDEXES.size());
+        } else {
+            logger.warn("Missing database indexes, affected queries will scan whole tables: {}", missing);
+        }
+    }
+
+    // Names of required indexes not found by the last check
+    public List<String> getMissingIndexes() {
+        return missingIndexes;
+    }
+
+    // Column lists of every index on the table, in index order
+    private List<List<String>> indexColumns(String table) {
+        List<List<String>> result = new ArrayList<>();
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT name FROM pragma_index_list(?)", String.class, table);
+        for (String name : names) {
+            result.add(jdbcTemplate.queryForList(
+                    "SELECT name FROM pragma_index_info(?) ORDER BY seqno", String.class, name));
+        }
+        return result;
+    }
+
+    private static boolean startsWith(List<String> columns, String[] spec) {
+        if (columns.size() < spec.length - 1) {
+            return false;
+        }
+        for (int i = 1; i < spec.length; i++) {
+            if (!spec[i].equalsIgnoreCase(columns.get(i - 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,51 @@
+package com.warehouse.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.MovementTotalDTO;
+import com.warehouse.service.AnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    // Ad-hoc IN/OUT totals over the whole ledger from the in-memory column store,
+    // e.g. ?groupBy=productCode&party=Acme&startDate=2024-01-01
+    @GetMapping("/transactions")
+    public ResponseEntity<ApiResponse<List<MovementTotalDTO>>> transactions(
+            @RequestParam(defaultValue = "none") String groupBy,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String materialType,
+            @RequestParam(required = false) String productCode,
+            @RequestParam(required = false) String party,
+            @RequestParam(required = false) String unit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        try {
+            List<MovementTotalDTO> totals = analyticsService.aggregate(groupBy, blankToNull(type),
+                    blankToNull(materialType), blankToNull(productCode), blankToNull(party), blankToNull(unit),
+                    startDate, endDate);
+            return ResponseEntity.ok(ApiResponse.success(totals));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,29 @@
+package com.warehouse.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.warehouse.service.ChangeFeed;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    // Server-sent events of committed transaction and product changes, see
+    // ChangeFeed for the event names. EventSource sends Last-Event-ID itself when
+    // it reconnects; the lastEventId parameter resumes a new connection.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
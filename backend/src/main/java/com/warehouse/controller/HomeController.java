@@ -1,8 +1,14 @@
 package com.warehouse.controller;
 
+import com.warehouse.config.CacheConfig;
+import com.warehouse.config.SchemaIndexCheck;
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.service.CatalogCache;
+import com.warehouse.service.ChangeFeed;
+import com.warehouse.service.DatabaseWriter;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -21,6 +27,16 @@ public class HomeController {
     private int serverPort;
     @Autowired
     private ApplicationContext applicationContext;
+    @Autowired
+    private SchemaIndexCheck schemaIndexCheck;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private DatabaseWriter databaseWriter;
+    @Autowired
+    private CatalogCache catalogCache;
+    @Autowired
+    private ChangeFeed changeFeed;
     
     @GetMapping
     public ResponseEntity<ApiResponse<String>> home() {
@@ -57,6 +73,11 @@ public class HomeController {
         payload.put("dbPath", dbFile.getAbsolutePath());
         payload.put("dbExists", dbExists);
         payload.put("dbConnectOk", dbConnectOk);
+        payload.put("missingIndexes", schemaIndexCheck.getMissingIndexes());
+        payload.put("caches", CacheConfig.statistics(cacheManager));
+        payload.put("writer", databaseWriter.getStatistics());
+        payload.put("catalogVersions", catalogCache.getVersions());
+        payload.put("events", changeFeed.getStatistics());
         return ResponseEntity.ok(ApiResponse.success(payload));
     }
 }
@@ -1,9 +1,17 @@
 package com.warehouse.controller;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -15,12 +23,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPage;
 import com.warehouse.dto.ProductDTO;
+import com.warehouse.dto.UploadJobStatus;
 import com.warehouse.entity.MaterialType;
 import com.warehouse.entity.Product;
+import com.warehouse.service.CatalogCache;
+import com.warehouse.service.NdjsonWriter;
 import com.warehouse.service.ProductService;
+import com.warehouse.service.UploadJob;
+import com.warehouse.service.UploadJobService;
 
 import jakarta.validation.Valid;
 
@@ -30,21 +47,98 @@ import jakarta.validation.Valid;
 @Validated
 public class ProductController {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private ProductService productService;
     
-    // Get all products
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+    
+    @Autowired
+    private UploadJobService uploadJobService;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    // Get all products as one list. With a page parameter this returns a Page in
+    // id order instead; with a cursor parameter (empty for the first page) it
+    // switches to keyset pagination, which costs the same on every page.
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Product>>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+        if ((page != null && page < 0) || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
         try {
-            List<Product> products = productService.getAllProducts();
-            return ResponseEntity.ok(ApiResponse.success(products));
+            if (cursor != null) {
+                CursorPage<Product> products = productService.getProductsAfter(cursor.trim(), size);
+                return ResponseEntity.ok(ApiResponse.success(products));
+            }
+            if (page != null) {
+                Page<Product> products = productService.getProducts(page, size);
+                return ResponseEntity.ok(ApiResponse.success(products));
+            }
+            return catalogResponse(request, CatalogCache.Table.PRODUCTS, "products",
+                    productService::getAllProducts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Error loading products: " + e.getMessage()));
         }
     }
     
+    // Stream all products as newline-delimited JSON, one product per line, in id order
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = out -> ndjsonWriter.write(productService::forEachProduct, out);
+        return ResponseEntity.ok()
+                .contentType(NdjsonWriter.MEDIA_TYPE)
+                .body(body);
+    }
+    
+    // Get the columns the product list shows, for all products
+    @GetMapping("/summary")
+    public ResponseEntity<?> getProductSummaries(WebRequest request) {
+        try {
+            return catalogResponse(request, CatalogCache.Table.PRODUCTS, "products-summary",
+                    productService::getProductSummaries);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error loading products: " + e.getMessage()));
+        }
+    }
+    
+    // Get all product names for dropdowns
+    @GetMapping("/names")
+    public ResponseEntity<?> getAllProductNames(WebRequest request) {
+        try {
+            return catalogResponse(request, CatalogCache.Table.PRODUCT_NAMES, "product-names",
+                    productService::getAllProductNames);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error loading product names: " + e.getMessage()));
+        }
+    }
+    
+    // Get all suppliers
+    @GetMapping("/suppliers")
+    public ResponseEntity<?> getAllSuppliers(WebRequest request) {
+        try {
+            return catalogResponse(request, CatalogCache.Table.SUPPLIERS, "suppliers",
+                    productService::getAllSuppliers);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error loading suppliers: " + e.getMessage()));
+        }
+    }
+    
     // Get product by ID
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable Long id) {
@@ -76,6 +170,48 @@ public class ProductController {
         }
     }
     
+    // Bulk import products from a CSV file as a background job; poll the returned job id for progress
+    @PostMapping("/upload-csv")
+    public ResponseEntity<ApiResponse<UploadJobStatus>> uploadCsv(@RequestParam("file") MultipartFile file) {
+        try {
+            if (file.isEmpty()) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("File is empty"));
+            }
+            String fileName = file.getOriginalFilename();
+            if (fileName == null || !fileName.toLowerCase().endsWith(".csv")) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Please upload a CSV file (.csv)"));
+            }
+            
+            Path tempFile = Files.createTempFile("products-upload-", ".csv");
+            try {
+                file.transferTo(tempFile);
+                UploadJob job = uploadJobService.submitProducts(fileName, tempFile);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success("Upload queued for processing", job.toStatus()));
+            } catch (RejectedExecutionException e) {
+                Files.deleteIfExists(tempFile);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .body(ApiResponse.error("Upload queue is full, please try again shortly"));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Error processing file: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/upload/{jobId}")
+    public ResponseEntity<ApiResponse<UploadJobStatus>> getUploadStatus(@PathVariable String jobId) {
+        return uploadJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(job.toStatus())))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Upload job not found")));
+    }
+    
     // Delete product
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable Long id) {
@@ -218,6 +354,27 @@ public class ProductController {
         }
     }
     
+    // 304 Not Modified when the client already has the current version of the
+    // view, checked before anything is read. Otherwise the cached serialized
+    // body, loaded again only after a write. no-cache lets browsers keep the
+    // response but makes them revalidate it on every use.
+    private ResponseEntity<?> catalogResponse(WebRequest request, CatalogCache.Table table, String view,
+                                              Supplier<?> loader) {
+        String etag = catalogCache.etag(table, view);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        CatalogCache.Body body = catalogCache.body(table, view, loader);
+        return ResponseEntity.ok()
+                .eTag(body.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.getJson());
+    }
+    
     // Helper method to convert DTO to Entity
     private Product convertToEntity(ProductDTO dto) {
         Product product = new Product();
@@ -0,0 +1,42 @@
+package com.warehouse.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.MovementTotalDTO;
+import com.warehouse.service.ReportService;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    // Pre-aggregated IN/OUT totals, e.g. ?groupBy=party&period=month&startDate=2024-01-01
+    @GetMapping("/movements")
+    public ResponseEntity<ApiResponse<List<MovementTotalDTO>>> movements(
+            @RequestParam(defaultValue = "total") String groupBy,
+            @RequestParam(defaultValue = "day") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String key) {
+        try {
+            List<MovementTotalDTO> totals = reportService.getMovements(groupBy, period, startDate, endDate,
+                    key == null || key.trim().isEmpty() ? null : key.trim());
+            return ResponseEntity.ok(ApiResponse.success(totals));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.warehouse.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.StockBalanceDTO;
+import com.warehouse.service.StockService;
+
+// Current stock from the stock_balances ledger, no summing of transactions
+@RestController
+@RequestMapping("/api/stock")
+public class StockController {
+
+    @Autowired
+    private StockService stockService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<StockBalanceDTO>>> getAll() {
+        return ResponseEntity.ok(ApiResponse.success(stockService.getAllBalances()));
+    }
+
+    @GetMapping("/{productCode}")
+    public ResponseEntity<ApiResponse<List<StockBalanceDTO>>> getByProductCode(@PathVariable String productCode) {
+        List<StockBalanceDTO> balances = stockService.getBalances(productCode);
+        if (balances.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No stock recorded for product code " + productCode));
+        }
+        return ResponseEntity.ok(ApiResponse.success(balances));
+    }
+
+    // Recomputes every balance from the full transaction history
+    @PostMapping("/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuild() {
+        int balances = stockService.rebuildBalances();
+        return ResponseEntity.ok(ApiResponse.success("Rebuilt " + balances + " stock balances", balances));
+    }
+}
@@ -0,0 +1,76 @@
+package com.warehouse.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.SyncBatchDTO;
+import com.warehouse.dto.SyncResultDTO;
+import com.warehouse.service.SyncService;
+
+// Delta sync between sites. To bring site A up to date with site B:
+// 1. read B's siteId from B's /status and A's watermark for it from A's
+//    /status peers (0 if missing);
+// 2. GET B's /changes?since=<watermark> and POST the response data to A's /apply;
+// 3. repeat with since=<until> while hasMore.
+// Swap A and B to sync the other way.
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Value("${warehouse.sync.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> status() {
+        return ResponseEntity.ok(ApiResponse.success(syncService.getStatus()));
+    }
+
+    // Changes after the since high-watermark, oldest first
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<SyncBatchDTO>> changes(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "${warehouse.sync.batch-size:1000}") int limit) {
+        if (since < 0 || limit < 1 || limit > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("since must be >= 0 and limit between 1 and " + maxBatchSize));
+        }
+        return ResponseEntity.ok(ApiResponse.success(syncService.getChanges(since, limit)));
+    }
+
+    // Applies a batch read from another site's /changes
+    @PostMapping("/apply")
+    public ResponseEntity<ApiResponse<SyncResultDTO>> apply(@RequestBody SyncBatchDTO batch) {
+        int size = batch.getChanges() != null ? batch.getChanges().size() : 0;
+        if (size > maxBatchSize) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("A batch can have at most " + maxBatchSize + " changes"));
+        }
+        try {
+            SyncResultDTO result = syncService.apply(batch);
+            return ResponseEntity.ok(ApiResponse.success("Applied " + result.getApplied() + " changes", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Error applying changes: " + e.getMessage()));
+        }
+    }
+}
@@ -1,76 +1,237 @@
 package com.warehouse.controller;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPage;
 import com.warehouse.dto.TransactionDTO;
+import com.warehouse.dto.TransactionFilter;
+import com.warehouse.dto.UploadJobStatus;
+import com.warehouse.service.CsvTransactionReader;
+import com.warehouse.service.ExcelTransactionReader;
+import com.warehouse.service.NdjsonWriter;
+import com.warehouse.service.TransactionExportWriter;
 import com.warehouse.service.TransactionService;
+import com.warehouse.service.TransactionSuggestionService;
+import com.warehouse.service.UploadJob;
+import com.warehouse.service.UploadJobService;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private UploadJobService uploadJobService;
+
+    @Autowired
+    private ExcelTransactionReader excelTransactionReader;
+
+    @Autowired
+    private CsvTransactionReader csvTransactionReader;
+
+    @Autowired
+    private TransactionExportWriter transactionExportWriter;
+
+    @Autowired
+    private TransactionSuggestionService transactionSuggestionService;
+
+    @Autowired
+    private NdjsonWriter ndjsonWriter;
+
+    // All transactions as one list. With a page or cursor parameter this returns
+    // the same newest-first Page or CursorPage as /filter without filters.
     @GetMapping
-    public ResponseEntity<ApiResponse<List<TransactionDTO>>> getAll() {
-        List<TransactionDTO> list = transactionService.getAllTransactions();
-        return ResponseEntity.ok(ApiResponse.success(list));
+    public ResponseEntity<ApiResponse<?>> getAll(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+        if (page == null && cursor == null) {
+            List<TransactionDTO> list = transactionService.getAllTransactions();
+            return ResponseEntity.ok(ApiResponse.success(list));
+        }
+        return filter(null, null, null, null, null, null, page != null ? page : 0, size, cursor);
+    }
+
+    // Streams the filtered transactions as newline-delimited JSON, one transaction
+    // per line, newest first, as the rows are read
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String materialType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String party,
+            @RequestParam(required = false) String productName) {
+        TransactionFilter filter = toFilter(type, materialType, startDate, endDate, party, productName);
+        NdjsonWriter.RowSource<TransactionDTO> rows = row -> transactionService.forEachTransactionForExport(filter, row);
+        StreamingResponseBody body = out -> ndjsonWriter.write(rows, out);
+        return ResponseEntity.ok()
+                .contentType(NdjsonWriter.MEDIA_TYPE)
+                .body(body);
+    }
+
+    // Filtered listing, newest first. Without a cursor parameter this returns the
+    // classic page/size Page; with one (empty for the first page) it switches to
+    // keyset pagination, which costs the same on every page and skips the count.
+    @GetMapping("/filter")
+    public ResponseEntity<ApiResponse<?>> filter(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String materialType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String party,
+            @RequestParam(required = false) String productName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE));
+        }
+        TransactionFilter filter = toFilter(type, materialType, startDate, endDate, party, productName);
+
+        if (cursor == null) {
+            Page<TransactionDTO> result = transactionService.getTransactionsWithFilters(filter, page, size);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        }
+        try {
+            CursorPage<TransactionDTO> result = transactionService.getTransactionsWithFiltersAfter(
+                    filter, cursor.trim(), size);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // Streams the filtered transactions as CSV (default) or xlsx straight from the database cursor
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String materialType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String party,
+            @RequestParam(required = false) String productName) {
+
+        boolean excel = format.equalsIgnoreCase("xlsx");
+        if (!excel && !format.equalsIgnoreCase("csv")) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        TransactionFilter filter = toFilter(type, materialType, startDate, endDate, party, productName);
+        TransactionExportWriter.RowSource rows = row -> transactionService.forEachTransactionForExport(filter, row);
+
+        String fileName = "transactions_" + LocalDate.now() + (excel ? ".xlsx" : ".csv");
+        StreamingResponseBody body = excel
+                ? out -> transactionExportWriter.writeExcel(rows, out)
+                : out -> transactionExportWriter.writeCsv(rows, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(excel
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // Autocomplete endpoints, most used and most recent values first
+    @GetMapping("/autocomplete/party")
+    public ResponseEntity<ApiResponse<List<String>>> getPartySuggestions(@RequestParam String term) {
+        List<String> suggestions = transactionSuggestionService.suggest(TransactionSuggestionService.Field.PARTY, term);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
+    }
+
+    @GetMapping("/autocomplete/product-name")
+    public ResponseEntity<ApiResponse<List<String>>> getProductNameSuggestions(@RequestParam String term) {
+        List<String> suggestions = transactionSuggestionService.suggest(
+                TransactionSuggestionService.Field.PRODUCT_NAME, term);
+        return ResponseEntity.ok(ApiResponse.success(suggestions));
     }
 
+    // Accepts the file and queues it as a background job; poll the returned job id for progress
     @PostMapping("/upload")
-    public ResponseEntity<ApiResponse<UploadResult>> uploadExcel(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ApiResponse<UploadJobStatus>> uploadExcel(@RequestParam("file") MultipartFile file) {
+        if (!file.isEmpty() && !isExcelFile(file)) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Please upload an Excel file (.xlsx or .xls)"));
+        }
+        // Spill the upload to a temp file so the SAX reader can stream it from disk
+        return queueUpload(file, ".xlsx", tempFile -> uploadJobService.submitTransactions(
+                file.getOriginalFilename(), tempFile, excelTransactionReader, "Excel file"));
+    }
+
+    // Same as /upload for CSV files; columns are matched by header name
+    @PostMapping("/upload-csv")
+    public ResponseEntity<ApiResponse<UploadJobStatus>> uploadCsv(@RequestParam("file") MultipartFile file) {
+        if (!file.isEmpty() && !isCsvFile(file)) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Please upload a CSV file (.csv)"));
+        }
+        return queueUpload(file, ".csv", tempFile -> uploadJobService.submitTransactions(
+                file.getOriginalFilename(), tempFile, csvTransactionReader, "CSV file"));
+    }
+
+    @GetMapping("/upload/{jobId}")
+    public ResponseEntity<ApiResponse<UploadJobStatus>> getUploadStatus(@PathVariable String jobId) {
+        return uploadJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(job.toStatus())))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Upload job not found")));
+    }
+
+    private ResponseEntity<ApiResponse<UploadJobStatus>> queueUpload(MultipartFile file, String suffix,
+                                                                      Function<Path, UploadJob> submit) {
         try {
             if (file.isEmpty()) {
                 return ResponseEntity.badRequest()
                     .body(ApiResponse.error("File is empty"));
             }
 
-            if (!isExcelFile(file)) {
-                return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Please upload an Excel file (.xlsx or .xls)"));
+            Path tempFile = Files.createTempFile("transactions-upload-", suffix);
+            try {
+                file.transferTo(tempFile);
+                UploadJob job = submit.apply(tempFile);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Upload queued for processing", job.toStatus()));
+            } catch (RejectedExecutionException e) {
+                Files.deleteIfExists(tempFile);
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(ApiResponse.error("Upload queue is full, please try again shortly"));
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
             }
-
-            List<TransactionDTO> transactions = parseExcelFile(file.getInputStream());
-            
-            if (transactions.isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("No valid data found in the Excel file"));
-            }
-
-            // Save transactions to database
-            List<TransactionDTO> savedTransactions = transactionService.saveTransactions(transactions);
-            
-            UploadResult result = new UploadResult();
-            result.setProcessed(savedTransactions.size());
-            result.setTotal(transactions.size());
-            result.setMessage("Excel file uploaded and processed successfully");
-            
-            return ResponseEntity.ok(ApiResponse.success(result));
-            
         } catch (IOException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Error reading file: " + e.getMessage()));
@@ -80,166 +241,31 @@ public class TransactionController {
         }
     }
 
-    private boolean isExcelFile(MultipartFile file) {
-        String fileName = file.getOriginalFilename();
-        return fileName != null && (fileName.endsWith(".xlsx") || fileName.endsWith(".xls"));
+    // Blank parameters mean "no filter"; the date range covers whole days
+    private static TransactionFilter toFilter(String type, String materialType, LocalDate startDate,
+                                              LocalDate endDate, String party, String productName) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setType(blankToNull(type) != null ? type.trim().toUpperCase() : null);
+        filter.setMaterialType(blankToNull(materialType) != null ? materialType.trim().toUpperCase() : null);
+        filter.setStartDate(startDate != null ? startDate.atStartOfDay() : null);
+        filter.setEndDate(endDate != null ? endDate.atTime(LocalTime.MAX) : null);
+        filter.setParty(blankToNull(party));
+        filter.setProductName(blankToNull(productName));
+        return filter;
     }
 
-    private List<TransactionDTO> parseExcelFile(InputStream inputStream) throws IOException {
-        List<TransactionDTO> transactions = new ArrayList<>();
-        
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            
-            // Skip header row (row 0)
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                TransactionDTO transaction = new TransactionDTO();
-                
-                // Parse each column based on the expected format
-                transaction.setBarcode(getCellValueAsString(row.getCell(0)));
-                transaction.setProductCode(getCellValueAsString(row.getCell(1)));
-                transaction.setProductName(getCellValueAsString(row.getCell(2)));
-                
-                // Parse quantity as number
-                Cell quantityCell = row.getCell(3);
-                if (quantityCell != null && quantityCell.getCellType() == CellType.NUMERIC) {
-                    transaction.setQuantity(BigDecimal.valueOf(quantityCell.getNumericCellValue()));
-                } else if (quantityCell != null && quantityCell.getCellType() == CellType.STRING) {
-                    try {
-                        transaction.setQuantity(new BigDecimal(quantityCell.getStringCellValue()));
-                    } catch (NumberFormatException e) {
-                        // Skip this row if quantity is not a valid number
-                        continue;
-                    }
-                } else {
-                    continue; // Skip row if quantity is missing
-                }
-                
-                transaction.setUnit(getCellValueAsString(row.getCell(4)));
-                transaction.setBatchNo(getCellValueAsString(row.getCell(5)));
-                transaction.setGrnNo(getCellValueAsString(row.getCell(6)));
-                transaction.setMaterialType(getCellValueAsString(row.getCell(7)));
-                transaction.setType(getCellValueAsString(row.getCell(8)));
-                transaction.setParty(getCellValueAsString(row.getCell(9)));
-                
-                // Parse date (column 10)
-                Cell dateCell = row.getCell(10);
-                if (dateCell != null) {
-                    LocalDateTime transactionDate = parseDateFromCell(dateCell);
-                    if (transactionDate != null) {
-                        transaction.setCreatedAt(transactionDate);
-                    } else {
-                        // If date parsing fails, use current date
-                        transaction.setCreatedAt(LocalDateTime.now());
-                    }
-                } else {
-                    // If no date provided, use current date
-                    transaction.setCreatedAt(LocalDateTime.now());
-                }
-                
-                // Validate required fields
-                if (transaction.getProductCode() != null && !transaction.getProductCode().trim().isEmpty() &&
-                    transaction.getProductName() != null && !transaction.getProductName().trim().isEmpty() &&
-                    transaction.getType() != null && !transaction.getType().trim().isEmpty()) {
-                    transactions.add(transaction);
-                }
-            }
-        }
-        
-        return transactions;
-    }
-
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return "";
-        
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
-                } else {
-                    return String.valueOf((long) cell.getNumericCellValue());
-                }
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
-            default:
-                return "";
-        }
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 
-    private LocalDateTime parseDateFromCell(Cell cell) {
-        if (cell == null) return null;
-        
-        try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                // Excel date cell
-                return cell.getDateCellValue().toInstant()
-                    .atZone(ZoneId.systemDefault())
-                    .toLocalDateTime();
-            } else if (cell.getCellType() == CellType.STRING) {
-                // String date - try to parse common formats
-                String dateStr = cell.getStringCellValue().trim();
-                if (dateStr.isEmpty()) return null;
-                
-                // Try different date formats - prioritize Indian format
-                try {
-                    // Try DD/MM/YYYY format (Indian format) - PRIMARY
-                    if (dateStr.matches("\\d{1,2}/\\d{1,2}/\\d{4}")) {
-                        String[] parts = dateStr.split("/");
-                        int day = Integer.parseInt(parts[0]);
-                        int month = Integer.parseInt(parts[1]);
-                        int year = Integer.parseInt(parts[2]);
-                        return LocalDateTime.of(year, month, day, 0, 0);
-                    }
-                    // Try DD-MM-YYYY format (Indian format alternative)
-                    else if (dateStr.matches("\\d{1,2}-\\d{1,2}-\\d{4}")) {
-                        String[] parts = dateStr.split("-");
-                        int day = Integer.parseInt(parts[0]);
-                        int month = Integer.parseInt(parts[1]);
-                        int year = Integer.parseInt(parts[2]);
-                        return LocalDateTime.of(year, month, day, 0, 0);
-                    }
-                    // Try YYYY-MM-DD format (ISO format) - SECONDARY
-                    else if (dateStr.matches("\\d{4}-\\d{1,2}-\\d{1,2}")) {
-                        String[] parts = dateStr.split("-");
-                        int year = Integer.parseInt(parts[0]);
-                        int month = Integer.parseInt(parts[1]);
-                        int day = Integer.parseInt(parts[2]);
-                        return LocalDateTime.of(year, month, day, 0, 0);
-                    }
-                } catch (Exception e) {
-                    // If parsing fails, return null
-                    return null;
-                }
-            }
-        } catch (Exception e) {
-            // If any error occurs, return null
-            return null;
-        }
-        
-        return null;
+    private boolean isCsvFile(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        return fileName != null && fileName.toLowerCase().endsWith(".csv");
     }
 
-    // Inner class for upload result
-    public static class UploadResult {
-        private int processed;
-        private int total;
-        private String message;
-
-        public int getProcessed() { return processed; }
-        public void setProcessed(int processed) { this.processed = processed; }
-        
-        public int getTotal() { return total; }
-        public void setTotal(int total) { this.total = total; }
-        
-        public String getMessage() { return message; }
-        public void setMessage(String message) { this.message = message; }
+    private boolean isExcelFile(MultipartFile file) {
+        String fileName = file.getOriginalFilename();
+        return fileName != null && (fileName.endsWith(".xlsx") || fileName.endsWith(".xls"));
     }
 }
 
@@ -0,0 +1,72 @@
+package com.warehouse.dto;
+
+import java.math.BigDecimal;
+
+// IN/OUT totals of one group (material type, product code or party) in one
+// day or month. key is null when the totals are not grouped.
+public class MovementTotalDTO {
+
+    private String period;
+
+    private String key;
+
+    private BigDecimal quantityIn;
+
+    private BigDecimal quantityOut;
+
+    private BigDecimal net;
+
+    private long transactionCount;
+
+    // Constructors
+    public MovementTotalDTO() {}
+
+    // Getters and Setters
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public BigDecimal getQuantityIn() {
+        return quantityIn;
+    }
+
+    public void setQuantityIn(BigDecimal quantityIn) {
+        this.quantityIn = quantityIn;
+    }
+
+    public BigDecimal getQuantityOut() {
+        return quantityOut;
+    }
+
+    public void setQuantityOut(BigDecimal quantityOut) {
+        this.quantityOut = quantityOut;
+    }
+
+    public BigDecimal getNet() {
+        return net;
+    }
+
+    public void setNet(BigDecimal net) {
+        this.net = net;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
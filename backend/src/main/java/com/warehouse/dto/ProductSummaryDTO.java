@@ -0,0 +1,129 @@
+package com.warehouse.dto;
+
+import java.time.LocalDateTime;
+
+import com.warehouse.entity.MaterialType;
+
+// The product columns the product list shows, read without loading Product entities
+public class ProductSummaryDTO {
+
+    private Long id;
+
+    private String productCode;
+
+    private String productName;
+
+    private Double quantity;
+
+    private String unit;
+
+    private String batchNo;
+
+    private MaterialType materialType;
+
+    private String source;
+
+    private LocalDateTime dateAdded;
+
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ProductSummaryDTO() {}
+
+    // Used by the constructor projection in ProductRepository
+    public ProductSummaryDTO(Long id, String productCode, String productName, Double quantity, String unit,
+                             String batchNo, MaterialType materialType, String source,
+                             LocalDateTime dateAdded, LocalDateTime createdAt) {
+        this.id = id;
+        this.productCode = productCode;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unit = unit;
+        this.batchNo = batchNo;
+        this.materialType = materialType;
+        this.source = source;
+        this.dateAdded = dateAdded;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Double getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Double quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public String getBatchNo() {
+        return batchNo;
+    }
+
+    public void setBatchNo(String batchNo) {
+        this.batchNo = batchNo;
+    }
+
+    public MaterialType getMaterialType() {
+        return materialType;
+    }
+
+    public void setMaterialType(MaterialType materialType) {
+        this.materialType = materialType;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public LocalDateTime getDateAdded() {
+        return dateAdded;
+    }
+
+    public void setDateAdded(LocalDateTime dateAdded) {
+        this.dateAdded = dateAdded;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
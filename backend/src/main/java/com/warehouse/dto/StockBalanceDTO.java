@@ -0,0 +1,102 @@
+package com.warehouse.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Current stock of one product code, batch and unit
+public class StockBalanceDTO {
+
+    private String productCode;
+
+    private String productName;
+
+    private String batchNo;
+
+    private String unit;
+
+    private BigDecimal quantityIn;
+
+    private BigDecimal quantityOut;
+
+    private BigDecimal balance;
+
+    private long transactionCount;
+
+    private LocalDateTime lastTransactionAt;
+
+    // Constructors
+    public StockBalanceDTO() {}
+
+    // Getters and Setters
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public void setProductCode(String productCode) {
+        this.productCode = productCode;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getBatchNo() {
+        return batchNo;
+    }
+
+    public void setBatchNo(String batchNo) {
+        this.batchNo = batchNo;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public BigDecimal getQuantityIn() {
+        return quantityIn;
+    }
+
+    public void setQuantityIn(BigDecimal quantityIn) {
+        this.quantityIn = quantityIn;
+    }
+
+    public BigDecimal getQuantityOut() {
+        return quantityOut;
+    }
+
+    public void setQuantityOut(BigDecimal quantityOut) {
+        this.quantityOut = quantityOut;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public LocalDateTime getLastTransactionAt() {
+        return lastTransactionAt;
+    }
+
+    public void setLastTransactionAt(LocalDateTime lastTransactionAt) {
+        this.lastTransactionAt = lastTransactionAt;
+    }
+}
@@ -0,0 +1,88 @@
+package com.warehouse.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// A batch of changes from GET /api/sync/changes, in seq order. Posting it
+// unchanged to /api/sync/apply on another site applies it there. Ask for the
+// next batch with since=until while hasMore is true.
+public class SyncBatchDTO {
+
+    // Site the changes were read from
+    private String siteId;
+
+    private long since;
+
+    // Highest seq in this batch; since when the batch is empty
+    private long until;
+
+    // Highest seq on the site when the batch was read
+    private long highWatermark;
+
+    private boolean hasMore;
+
+    // Column names per table, sent once instead of with every row
+    private Map<String, List<String>> columns;
+
+    private List<SyncChangeDTO> changes;
+
+    // Constructors
+    public SyncBatchDTO() {}
+
+    // Getters and Setters
+    public String getSiteId() {
+        return siteId;
+    }
+
+    public void setSiteId(String siteId) {
+        this.siteId = siteId;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getUntil() {
+        return until;
+    }
+
+    public void setUntil(long until) {
+        this.until = until;
+    }
+
+    public long getHighWatermark() {
+        return highWatermark;
+    }
+
+    public void setHighWatermark(long highWatermark) {
+        this.highWatermark = highWatermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Map<String, List<String>> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(Map<String, List<String>> columns) {
+        this.columns = columns;
+    }
+
+    public List<SyncChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<SyncChangeDTO> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,86 @@
+package com.warehouse.dto;
+
+import java.util.List;
+
+// The latest change of one row: its current column values, or a tombstone
+// when deleted. values follows the column order of the batch's columns entry
+// for the table.
+public class SyncChangeDTO {
+
+    private Long seq;
+
+    private String table;
+
+    private String uid;
+
+    private boolean deleted;
+
+    // Epoch millis on the site the change was made on
+    private Long modifiedAt;
+
+    // Site id of that site
+    private String origin;
+
+    // Null for deletes
+    private List<Object> values;
+
+    // Constructors
+    public SyncChangeDTO() {}
+
+    // Getters and Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Long getModifiedAt() {
+        return modifiedAt;
+    }
+
+    public void setModifiedAt(Long modifiedAt) {
+        this.modifiedAt = modifiedAt;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public void setValues(List<Object> values) {
+        this.values = values;
+    }
+}
@@ -0,0 +1,58 @@
+package com.warehouse.dto;
+
+// Outcome of applying one batch. watermark is where the next batch from
+// the same site should start.
+public class SyncResultDTO {
+
+    private String source;
+
+    private int applied;
+
+    // Changes that were already applied or older than the local row
+    private int skipped;
+
+    private long watermark;
+
+    // Constructors
+    public SyncResultDTO() {}
+
+    public SyncResultDTO(String source, int applied, int skipped, long watermark) {
+        this.source = source;
+        this.applied = applied;
+        this.skipped = skipped;
+        this.watermark = watermark;
+    }
+
+    // Getters and Setters
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+}
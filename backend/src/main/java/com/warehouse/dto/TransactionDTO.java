@@ -57,6 +57,15 @@ public class TransactionDTO {
         this.party = party;
     }
     
+    // Used by the constructor projections in TransactionRepositoryCustomImpl
+    public TransactionDTO(Long id, String barcode, String productCode, String productName,
+                         BigDecimal quantity, String unit, String batchNo, String grnNo,
+                         String materialType, String type, String party, LocalDateTime createdAt) {
+        this(barcode, productCode, productName, quantity, unit, batchNo, grnNo, materialType, type, party);
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,71 @@
+package com.warehouse.dto;
+
+import java.time.LocalDateTime;
+
+// Optional criteria for listing and exporting transactions; null fields are not filtered on
+public class TransactionFilter {
+
+    private String type;
+
+    private String materialType;
+
+    private LocalDateTime startDate;
+
+    private LocalDateTime endDate;
+
+    private String party;
+
+    private String productName;
+
+    // Constructors
+    public TransactionFilter() {}
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getMaterialType() {
+        return materialType;
+    }
+
+    public void setMaterialType(String materialType) {
+        this.materialType = materialType;
+    }
+
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+
+    public String getParty() {
+        return party;
+    }
+
+    public void setParty(String party) {
+        this.party = party;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+}
@@ -0,0 +1,167 @@
+package com.warehouse.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class UploadJobStatus {
+
+    // Per-stage timing of the upload pipeline
+    public static class StageTiming {
+        private long busyMillis;
+        private long waitMillis;
+        private long batches;
+
+        public long getBusyMillis() { return busyMillis; }
+        public void setBusyMillis(long busyMillis) { this.busyMillis = busyMillis; }
+
+        public long getWaitMillis() { return waitMillis; }
+        public void setWaitMillis(long waitMillis) { this.waitMillis = waitMillis; }
+
+        public long getBatches() { return batches; }
+        public void setBatches(long batches) { this.batches = batches; }
+    }
+
+    private String jobId;
+
+    private String fileName;
+
+    private String state;
+
+    private String message;
+
+    private Long rowsTotal;
+
+    private long rowsParsed;
+
+    private long rowsPersisted;
+
+    private long rowsRejected;
+
+    private double rowsPerSecond;
+
+    private Long etaSeconds;
+
+    private LocalDateTime submittedAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private Map<String, StageTiming> stages;
+
+    // Constructors
+    public UploadJobStatus() {}
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getRowsTotal() {
+        return rowsTotal;
+    }
+
+    public void setRowsTotal(Long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public void setRowsParsed(long rowsParsed) {
+        this.rowsParsed = rowsParsed;
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted;
+    }
+
+    public void setRowsPersisted(long rowsPersisted) {
+        this.rowsPersisted = rowsPersisted;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Map<String, StageTiming> getStages() {
+        return stages;
+    }
+
+    public void setStages(Map<String, StageTiming> stages) {
+        this.stages = stages;
+    }
+}
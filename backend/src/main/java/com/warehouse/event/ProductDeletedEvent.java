@@ -0,0 +1,17 @@
+package com.warehouse.event;
+
+// Published by ProductService when a product is deleted, inside the write
+// transaction. Listen with @TransactionalEventListener to see only committed
+// deletes.
+public class ProductDeletedEvent {
+
+    private final Long id;
+
+    public ProductDeletedEvent(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
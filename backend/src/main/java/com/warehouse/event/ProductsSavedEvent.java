@@ -0,0 +1,21 @@
+package com.warehouse.event;
+
+import java.util.List;
+
+import com.warehouse.entity.Product;
+
+// Published by ProductService whenever products are added or updated, from
+// both the single save and the bulk upload path. Listen with
+// @TransactionalEventListener to see only committed rows.
+public class ProductsSavedEvent {
+
+    private final List<Product> products;
+
+    public ProductsSavedEvent(List<Product> products) {
+        this.products = products;
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+}
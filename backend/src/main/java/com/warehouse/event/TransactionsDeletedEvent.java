@@ -0,0 +1,21 @@
+package com.warehouse.event;
+
+import java.util.List;
+
+// Published when transactions are deleted, inside the write transaction:
+// by TransactionService for a single delete, and by SyncService for rows
+// deleted or replaced by another site. A replaced row is published here and
+// then again, with its new values, in a TransactionsSavedEvent. Listen with
+// @TransactionalEventListener to see only committed deletes.
+public class TransactionsDeletedEvent {
+
+    private final List<Long> ids;
+
+    public TransactionsDeletedEvent(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
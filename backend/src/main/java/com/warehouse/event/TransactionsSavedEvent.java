@@ -0,0 +1,23 @@
+package com.warehouse.event;
+
+import java.util.List;
+
+import com.warehouse.entity.Transaction;
+
+// Published by TransactionService whenever new transactions are stored, from both
+// the single save and the batch insert path, and by SyncService for rows
+// copied from another site. A row another site changed comes after a
+// TransactionsDeletedEvent for its id. Listeners that keep derived state
+// should use @TransactionalEventListener so they only see committed rows.
+public class TransactionsSavedEvent {
+
+    private final List<Transaction> transactions;
+
+    public TransactionsSavedEvent(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+}
@@ -0,0 +1,26 @@
+package com.warehouse.repository;
+
+// Builds FTS5 MATCH expressions for the trigram indexes created in
+// V3__full_text_search.sql. A trigram index can only match terms of at least
+// three characters; callers fall back to LIKE for anything shorter.
+public final class FullTextSearch {
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private FullTextSearch() {
+    }
+
+    public static boolean isSearchable(String term) {
+        return term != null && term.trim().length() >= MIN_TERM_LENGTH;
+    }
+
+    // The whole term as one quoted phrase, i.e. a case-insensitive substring match
+    public static String phrase(String term) {
+        return "\"" + term.trim().replace("\"", "\"\"") + "\"";
+    }
+
+    // Same as phrase, restricted to one indexed column
+    public static String columnPhrase(String column, String term) {
+        return "{" + column + "} : " + phrase(term);
+    }
+}
@@ -0,0 +1,82 @@
+package com.warehouse.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.warehouse.dto.MovementTotalDTO;
+
+// Reads the movement_rollups table that the triggers from
+// V5__movement_rollups.sql keep in step with transactions. Every query is a
+// range scan of the (dimension, period, bucket, dimension_key) primary key.
+@Repository
+public class MovementRollupRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Totals per bucket and key of one dimension ("material_type", "product" or
+    // "party") and period ("day" or "month"). Bucket bounds are inclusive and
+    // key limits the result to one group; pass null to leave any of them open.
+    public List<MovementTotalDTO> findTotals(String dimension, String period, String fromBucket, String toBucket,
+                                             String key) {
+        StringBuilder sql = new StringBuilder("SELECT bucket, dimension_key, quantity_in, quantity_out, "
+                + "transaction_count FROM movement_rollups WHERE dimension = ? AND period = ?");
+        List<Object> args = new ArrayList<>(List.of(dimension, period));
+        appendBounds(sql, args, fromBucket, toBucket);
+        if (key != null) {
+            sql.append(" AND dimension_key = ?");
+            args.add(key);
+        }
+        sql.append(" ORDER BY bucket, dimension_key");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toDTO(rs), args.toArray());
+    }
+
+    // Totals per bucket over all transactions. Every transaction has exactly one
+    // material type, so summing that dimension counts each one once.
+    public List<MovementTotalDTO> findOverallTotals(String period, String fromBucket, String toBucket) {
+        StringBuilder sql = new StringBuilder("SELECT bucket, NULL, ROUND(TOTAL(quantity_in), 2), "
+                + "ROUND(TOTAL(quantity_out), 2), SUM(transaction_count) FROM movement_rollups "
+                + "WHERE dimension = 'material_type' AND period = ?");
+        List<Object> args = new ArrayList<>(List.of(period));
+        appendBounds(sql, args, fromBucket, toBucket);
+        sql.append(" GROUP BY bucket ORDER BY bucket");
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toDTO(rs), args.toArray());
+    }
+
+    private static void appendBounds(StringBuilder sql, List<Object> args, String fromBucket, String toBucket) {
+        if (fromBucket != null) {
+            sql.append(" AND bucket >= ?");
+            args.add(fromBucket);
+        }
+        if (toBucket != null) {
+            sql.append(" AND bucket <= ?");
+            args.add(toBucket);
+        }
+    }
+
+    private static MovementTotalDTO toDTO(ResultSet rs) throws SQLException {
+        MovementTotalDTO dto = new MovementTotalDTO();
+        dto.setPeriod(rs.getString(1));
+        dto.setKey(rs.getString(2));
+        BigDecimal quantityIn = toQuantity(rs.getDouble(3));
+        BigDecimal quantityOut = toQuantity(rs.getDouble(4));
+        dto.setQuantityIn(quantityIn);
+        dto.setQuantityOut(quantityOut);
+        dto.setNet(quantityIn.subtract(quantityOut));
+        dto.setTransactionCount(rs.getLong(5));
+        return dto;
+    }
+
+    // Same scale as transactions.quantity
+    private static BigDecimal toQuantity(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
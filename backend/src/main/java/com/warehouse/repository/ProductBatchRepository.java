@@ -0,0 +1,161 @@
+package com.warehouse.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.warehouse.entity.Product;
+
+// Bulk insert path for products, the counterpart of TransactionBatchRepository
+@Repository
+public class ProductBatchRepository {
+
+    private static final String COLUMNS =
+            "product_code, product_name, packets, qty_per_packet, quantity, unit, batch_no, grn_no, "
+            + "sales_invoice_no, material_type, source, date_added, created_at, date";
+    private static final int COLUMN_COUNT = 14;
+
+    // SQLite's default SQLITE_MAX_VARIABLE_NUMBER
+    private static final int MAX_VARIABLES = 32766;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.jdbc.insert-chunk-size:500}")
+    private int chunkSize;
+
+    // Inserts new rows and sets the generated id on each entity. Must run inside
+    // the caller's transaction so all chunks commit together.
+    public List<Product> insertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return products;
+        }
+        int rowsPerStatement = Math.max(1, Math.min(chunkSize, MAX_VARIABLES / COLUMN_COUNT));
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            PreparedStatement full = null;
+            try {
+                for (int from = 0; from < products.size(); from += rowsPerStatement) {
+                    List<Product> chunk = products.subList(from, Math.min(from + rowsPerStatement, products.size()));
+                    if (chunk.size() == rowsPerStatement) {
+                        if (full == null) {
+                            full = connection.prepareStatement(insertSql(rowsPerStatement));
+                        }
+                        insertChunk(full, chunk);
+                    } else {
+                        try (PreparedStatement tail = connection.prepareStatement(insertSql(chunk.size()))) {
+                            insertChunk(tail, chunk);
+                        }
+                    }
+                }
+            } finally {
+                if (full != null) {
+                    full.close();
+                }
+            }
+            return products;
+        });
+    }
+
+    // Adds product names to the suggestion table, skipping ones already there
+    public void insertProductNames(Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT OR IGNORE INTO product_names (name) VALUES (?)",
+                new ArrayList<>(names), chunkSize, (ps, name) -> ps.setString(1, name));
+    }
+
+    // Ids of the given product names that exist in the suggestion table
+    public Map<String, Long> findProductNameIds(List<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (int from = 0; from < names.size(); from += chunkSize) {
+            List<String> chunk = names.subList(from, Math.min(from + chunkSize, names.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, name FROM product_names WHERE name IN (" + placeholders + ")",
+                    rs -> {
+                        ids.put(rs.getString(2), rs.getLong(1));
+                    }, chunk.toArray());
+        }
+        return ids;
+    }
+
+    // Adds the names of stored products missing from the suggestion table and
+    // returns how many were added
+    public int insertMissingProductNames() {
+        return jdbcTemplate.update("INSERT OR IGNORE INTO product_names (name) "
+                + "SELECT DISTINCT product_name FROM products WHERE product_name IS NOT NULL");
+    }
+
+    private void insertChunk(PreparedStatement ps, List<Product> chunk) throws SQLException {
+        int i = 1;
+        for (Product p : chunk) {
+            ps.setString(i++, p.getProductCode());
+            ps.setString(i++, p.getProductName());
+            setDouble(ps, i++, p.getPackets());
+            setDouble(ps, i++, p.getQtyPerPacket());
+            setDouble(ps, i++, p.getQuantity());
+            ps.setString(i++, p.getUnit());
+            ps.setString(i++, p.getBatchNo());
+            ps.setString(i++, p.getGrnNo());
+            ps.setString(i++, p.getSalesInvoiceNo());
+            ps.setString(i++, p.getMaterialType() != null ? p.getMaterialType().name() : null);
+            ps.setString(i++, p.getSource());
+            // Same binding Hibernate uses, so both paths store identical values
+            setTimestamp(ps, i++, p.getDateAdded());
+            setTimestamp(ps, i++, p.getCreatedAt());
+            setTimestamp(ps, i++, p.getDate());
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        // RETURNING order is unspecified, but rowids are assigned in VALUES order
+        Collections.sort(ids);
+        for (int k = 0; k < chunk.size() && k < ids.size(); k++) {
+            chunk.get(k).setId(ids.get(k));
+        }
+    }
+
+    private static void setDouble(PreparedStatement ps, int index, Double value) throws SQLException {
+        if (value != null) {
+            ps.setDouble(index, value);
+        } else {
+            ps.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        ps.setTimestamp(index, value != null ? Timestamp.valueOf(value) : null);
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO products (").append(COLUMNS).append(") VALUES ");
+        String tuple = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(tuple);
+        }
+        return sql.append(" RETURNING id").toString();
+    }
+}
@@ -2,12 +2,20 @@ package com.warehouse.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.warehouse.dto.ProductSummaryDTO;
 import com.warehouse.entity.MaterialType;
 import com.warehouse.entity.Product;
 
@@ -27,25 +35,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.productName LIKE %:searchTerm% OR p.productCode LIKE %:searchTerm%")
     List<Product> findBySearchTerm(@Param("searchTerm") String searchTerm);
     
-    // Get distinct values for autocomplete
-    @Query("SELECT DISTINCT p.productCode FROM Product p WHERE p.productCode LIKE CONCAT(:term, '%')")
-    List<String> findDistinctProductCodes(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.productName FROM Product p WHERE p.productName LIKE CONCAT(:term, '%')")
-    List<String> findDistinctProductNames(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.unit FROM Product p WHERE p.unit LIKE CONCAT(:term, '%')")
-    List<String> findDistinctUnits(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.batchNo FROM Product p WHERE p.batchNo IS NOT NULL AND p.batchNo LIKE CONCAT(:term, '%')")
-    List<String> findDistinctBatchNos(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.grnNo FROM Product p WHERE p.grnNo IS NOT NULL AND p.grnNo LIKE CONCAT(:term, '%')")
-    List<String> findDistinctGrnNos(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.salesInvoiceNo FROM Product p WHERE p.salesInvoiceNo IS NOT NULL AND p.salesInvoiceNo LIKE CONCAT(:term, '%')")
-    List<String> findDistinctSalesInvoiceNos(@Param("term") String term);
-    
-    @Query("SELECT DISTINCT p.source FROM Product p WHERE p.source LIKE CONCAT(:term, '%')")
-    List<String> findDistinctSources(@Param("term") String term);
+    // Search products by name or code through the products_fts index, best matches first
+    @Query(value = "SELECT p.* FROM products_fts f JOIN products p ON p.id = f.rowid " +
+                   "WHERE products_fts MATCH :query ORDER BY f.rank", nativeQuery = true)
+    List<Product> findByFullTextQuery(@Param("query") String query);
+    
+    // Product list rows built straight from the columns, without loading entities
+    @Query("SELECT new com.warehouse.dto.ProductSummaryDTO(p.id, p.productCode, p.productName, p.quantity, " +
+           "p.unit, p.batchNo, p.materialType, p.source, p.dateAdded, p.createdAt) FROM Product p")
+    List<ProductSummaryDTO> findAllSummaries();
+    
+    // Products with an id above the given one, for keyset pagination in id order
+    List<Product> findByIdGreaterThan(Long id, Pageable pageable);
+    
+    // All products in id order from a forward-only cursor; close the stream when done
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderById();
 }
@@ -0,0 +1,71 @@
+package com.warehouse.repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.warehouse.dto.StockBalanceDTO;
+
+// Reads the stock_balances table that the triggers from
+// V7__stock_balance_latest_row.sql keep in step with transactions. Lookups go through the primary key
+// (product_code, batch_no, unit), so their cost does not grow with the ledger.
+@Repository
+public class StockBalanceRepository {
+
+    private static final String SELECT = "SELECT product_code, product_name, batch_no, unit, quantity_in, "
+            + "quantity_out, balance, transaction_count, last_transaction_at FROM stock_balances";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // All balances in primary key order
+    public List<StockBalanceDTO> findAll() {
+        return jdbcTemplate.query(SELECT, (rs, rowNum) -> toDTO(rs));
+    }
+
+    public List<StockBalanceDTO> findByProductCode(String productCode) {
+        return jdbcTemplate.query(SELECT + " WHERE product_code = ?", (rs, rowNum) -> toDTO(rs), productCode);
+    }
+
+    // Recomputes every balance from the full ledger and returns the number of
+    // balances. Must run inside a transaction so readers never see an empty table.
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM stock_balances");
+        return jdbcTemplate.update("INSERT INTO stock_balances (product_code, batch_no, unit, product_name, "
+                + "quantity_in, quantity_out, balance, transaction_count, last_transaction_at) "
+                + "SELECT product_code, COALESCE(batch_no, ''), unit, product_name, "
+                + "ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity ELSE 0 END), 2), "
+                + "ROUND(TOTAL(CASE WHEN type = 'OUT' THEN quantity ELSE 0 END), 2), "
+                + "ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity WHEN type = 'OUT' THEN -quantity ELSE 0 END), 2), "
+                + "COUNT(*), MAX(created_at) "
+                + "FROM transactions GROUP BY product_code, COALESCE(batch_no, ''), unit");
+    }
+
+    private static StockBalanceDTO toDTO(ResultSet rs) throws SQLException {
+        StockBalanceDTO dto = new StockBalanceDTO();
+        dto.setProductCode(rs.getString(1));
+        dto.setProductName(rs.getString(2));
+        String batchNo = rs.getString(3);
+        dto.setBatchNo(batchNo == null || batchNo.isEmpty() ? null : batchNo);
+        dto.setUnit(rs.getString(4));
+        dto.setQuantityIn(toQuantity(rs.getDouble(5)));
+        dto.setQuantityOut(toQuantity(rs.getDouble(6)));
+        dto.setBalance(toQuantity(rs.getDouble(7)));
+        dto.setTransactionCount(rs.getLong(8));
+        Timestamp lastTransactionAt = rs.getTimestamp(9);
+        dto.setLastTransactionAt(lastTransactionAt != null ? lastTransactionAt.toLocalDateTime() : null);
+        return dto;
+    }
+
+    // Same scale as transactions.quantity
+    private static BigDecimal toQuantity(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,248 @@
+package com.warehouse.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.warehouse.dto.SyncChangeDTO;
+import com.warehouse.entity.MaterialType;
+import com.warehouse.entity.Product;
+import com.warehouse.entity.Transaction;
+
+// Reads and writes the change tracking tables from V6__sync_change_log.sql.
+// Rows are exchanged as their stored column values, so a row copied to
+// another site is stored exactly as it was. Column names come from the
+// Table lists only; names sent by clients are checked against them first.
+@Repository
+public class SyncRepository {
+
+    // The synced tables and their columns, apart from id and uid
+    public enum Table {
+        TRANSACTIONS("transactions", List.of("barcode", "product_code", "product_name", "quantity", "unit",
+                "batch_no", "grn_no", "material_type", "type", "party", "created_at")),
+        PRODUCTS("products", List.of("product_code", "product_name", "packets", "qty_per_packet", "quantity",
+                "unit", "batch_no", "grn_no", "sales_invoice_no", "material_type", "source", "date_added",
+                "created_at", "date"));
+
+        private final String tableName;
+        private final List<String> columns;
+
+        Table(String tableName, List<String> columns) {
+            this.tableName = tableName;
+            this.columns = columns;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        public static Table of(String tableName) {
+            for (Table table : values()) {
+                if (table.tableName.equals(tableName)) {
+                    return table;
+                }
+            }
+            throw new IllegalArgumentException("Unknown table: " + tableName);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public String findSiteId() {
+        return jdbcTemplate.queryForObject("SELECT value FROM sync_state WHERE key = 'site_id'", String.class);
+    }
+
+    public long findHighWatermark() {
+        Long seq = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM change_log", Long.class);
+        return seq != null ? seq : 0;
+    }
+
+    // Changes after since in seq order, with the current values of rows that
+    // still exist, read with one join over both tables
+    public List<SyncChangeDTO> findChanges(long since, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT c.seq, c.table_name, c.row_uid, c.deleted, c.modified_at, c.origin");
+        for (Table table : Table.values()) {
+            for (String column : table.columns) {
+                sql.append(", ").append(alias(table)).append('.').append(column);
+            }
+        }
+        sql.append(" FROM change_log c");
+        for (Table table : Table.values()) {
+            sql.append(" LEFT JOIN ").append(table.tableName).append(' ').append(alias(table))
+                    .append(" ON c.table_name = '").append(table.tableName).append("' AND c.deleted = 0 AND ")
+                    .append(alias(table)).append(".uid = c.row_uid");
+        }
+        sql.append(" WHERE c.seq > ? ORDER BY c.seq LIMIT ?");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            SyncChangeDTO change = toChange(rs);
+            if (!change.isDeleted()) {
+                // Each table's columns follow the change_log columns, in Table order
+                int offset = 7;
+                for (Table table : Table.values()) {
+                    if (table.tableName.equals(change.getTable())) {
+                        List<Object> values = new ArrayList<>(table.columns.size());
+                        for (int i = 0; i < table.columns.size(); i++) {
+                            values.add(rs.getObject(offset + i));
+                        }
+                        change.setValues(values);
+                    }
+                    offset += table.columns.size();
+                }
+            }
+            return change;
+        }, since, limit);
+    }
+
+    // The latest change recorded for the row, without values, or null
+    public SyncChangeDTO findChange(Table table, String uid) {
+        List<SyncChangeDTO> changes = jdbcTemplate.query("SELECT seq, table_name, row_uid, deleted, modified_at, "
+                + "origin FROM change_log WHERE table_name = ? AND row_uid = ?",
+                (rs, rowNum) -> toChange(rs), table.tableName, uid);
+        return changes.isEmpty() ? null : changes.get(0);
+    }
+
+    // Replaces the row's change with one made elsewhere. An entry the triggers
+    // just wrote keeps its new seq and takes over the change's time and origin.
+    // Update first: an upsert would use up a seq even when it updates.
+    public void recordChange(Table table, String uid, boolean deleted, long modifiedAt, String origin) {
+        int updated = jdbcTemplate.update("UPDATE change_log SET deleted = ?, modified_at = ?, origin = ? "
+                + "WHERE table_name = ? AND row_uid = ?", deleted ? 1 : 0, modifiedAt, origin, table.tableName, uid);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO change_log (table_name, row_uid, deleted, modified_at, origin) "
+                    + "VALUES (?, ?, ?, ?, ?)", table.tableName, uid, deleted ? 1 : 0, modifiedAt, origin);
+        }
+    }
+
+    public Long findId(Table table, String uid) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table.tableName + " WHERE uid = ?",
+                Long.class, uid);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Inserts a row with the given uid and returns its id. columns must be
+    // names from the table's column list.
+    public long insert(Table table, List<String> columns, List<Object> values, String uid) {
+        String placeholders = String.join(", ", Collections.nCopies(columns.size() + 1, "?"));
+        List<Object> args = new ArrayList<>(values);
+        args.add(uid);
+        return jdbcTemplate.queryForObject("INSERT INTO " + table.tableName + " (" + String.join(", ", columns)
+                + ", uid) VALUES (" + placeholders + ") RETURNING id", Long.class, args.toArray());
+    }
+
+    // columns must be names from the table's column list
+    public void update(Table table, long id, List<String> columns, List<Object> values) {
+        List<Object> args = new ArrayList<>(values);
+        args.add(id);
+        jdbcTemplate.update("UPDATE " + table.tableName + " SET " + String.join(" = ?, ", columns)
+                + " = ? WHERE id = ?", args.toArray());
+    }
+
+    public void delete(Table table, long id) {
+        jdbcTemplate.update("DELETE FROM " + table.tableName + " WHERE id = ?", id);
+    }
+
+    // Highest seq of the other site applied here, 0 if none yet
+    public long findPeerWatermark(String siteId) {
+        List<Long> seqs = jdbcTemplate.queryForList("SELECT last_seq FROM sync_peers WHERE site_id = ?",
+                Long.class, siteId);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    public void savePeerWatermark(String siteId, long seq) {
+        jdbcTemplate.update("INSERT INTO sync_peers (site_id, last_seq, updated_at) VALUES (?, ?, ?) "
+                + "ON CONFLICT (site_id) DO UPDATE SET last_seq = MAX(last_seq, excluded.last_seq), "
+                + "updated_at = excluded.updated_at", siteId, seq, System.currentTimeMillis());
+    }
+
+    public List<Map<String, Object>> findPeers() {
+        return jdbcTemplate.queryForList("SELECT site_id AS siteId, last_seq AS lastSeq, updated_at AS updatedAt "
+                + "FROM sync_peers ORDER BY site_id");
+    }
+
+    // Rows as entities for the listeners of the usual save events
+    public Transaction findTransaction(long id) {
+        return jdbcTemplate.queryForObject("SELECT id, barcode, product_code, product_name, quantity, unit, "
+                + "batch_no, grn_no, material_type, type, party, created_at FROM transactions WHERE id = ?",
+                (rs, rowNum) -> {
+                    Transaction t = new Transaction();
+                    t.setId(rs.getLong(1));
+                    t.setBarcode(rs.getString(2));
+                    t.setProductCode(rs.getString(3));
+                    t.setProductName(rs.getString(4));
+                    t.setQuantity(rs.getBigDecimal(5));
+                    t.setUnit(rs.getString(6));
+                    t.setBatchNo(rs.getString(7));
+                    t.setGrnNo(rs.getString(8));
+                    t.setMaterialType(rs.getString(9));
+                    t.setType(rs.getString(10));
+                    t.setParty(rs.getString(11));
+                    t.setCreatedAt(toLocalDateTime(rs.getTimestamp(12)));
+                    return t;
+                }, id);
+    }
+
+    public Product findProduct(long id) {
+        return jdbcTemplate.queryForObject("SELECT id, product_code, product_name, packets, qty_per_packet, "
+                + "quantity, unit, batch_no, grn_no, sales_invoice_no, material_type, source, date_added, "
+                + "created_at, date FROM products WHERE id = ?",
+                (rs, rowNum) -> {
+                    Product p = new Product();
+                    p.setId(rs.getLong(1));
+                    p.setProductCode(rs.getString(2));
+                    p.setProductName(rs.getString(3));
+                    p.setPackets(getDouble(rs, 4));
+                    p.setQtyPerPacket(getDouble(rs, 5));
+                    p.setQuantity(getDouble(rs, 6));
+                    p.setUnit(rs.getString(7));
+                    p.setBatchNo(rs.getString(8));
+                    p.setGrnNo(rs.getString(9));
+                    p.setSalesInvoiceNo(rs.getString(10));
+                    String materialType = rs.getString(11);
+                    p.setMaterialType(materialType != null ? MaterialType.valueOf(materialType) : null);
+                    p.setSource(rs.getString(12));
+                    p.setDateAdded(toLocalDateTime(rs.getTimestamp(13)));
+                    p.setCreatedAt(toLocalDateTime(rs.getTimestamp(14)));
+                    p.setDate(toLocalDateTime(rs.getTimestamp(15)));
+                    return p;
+                }, id);
+    }
+
+    private static SyncChangeDTO toChange(ResultSet rs) throws SQLException {
+        SyncChangeDTO change = new SyncChangeDTO();
+        change.setSeq(rs.getLong(1));
+        change.setTable(rs.getString(2));
+        change.setUid(rs.getString(3));
+        change.setDeleted(rs.getInt(4) != 0);
+        change.setModifiedAt(rs.getLong(5));
+        change.setOrigin(rs.getString(6));
+        return change;
+    }
+
+    private static String alias(Table table) {
+        return table == Table.TRANSACTIONS ? "t" : "p";
+    }
+
+    private static Double getDouble(ResultSet rs, int index) throws SQLException {
+        double value = rs.getDouble(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
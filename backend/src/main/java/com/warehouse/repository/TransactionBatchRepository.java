@@ -0,0 +1,112 @@
+package com.warehouse.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.warehouse.entity.Transaction;
+
+// Bulk insert path for transactions. Rows are written with multi-row
+// INSERT ... RETURNING id statements, so a chunk of N rows costs one
+// statement execution instead of N inserts plus N id lookups.
+@Repository
+public class TransactionBatchRepository {
+
+    private static final String COLUMNS =
+            "barcode, product_code, product_name, quantity, unit, batch_no, grn_no, material_type, type, party, created_at";
+    private static final int COLUMN_COUNT = 11;
+
+    // SQLite's default SQLITE_MAX_VARIABLE_NUMBER
+    private static final int MAX_VARIABLES = 32766;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.jdbc.insert-chunk-size:500}")
+    private int chunkSize;
+
+    // Inserts new rows and sets the generated id on each entity. Must run inside
+    // the caller's transaction so all chunks commit together.
+    public List<Transaction> insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return transactions;
+        }
+        int rowsPerStatement = Math.max(1, Math.min(chunkSize, MAX_VARIABLES / COLUMN_COUNT));
+
+        return jdbcTemplate.execute((Connection connection) -> {
+            PreparedStatement full = null;
+            try {
+                for (int from = 0; from < transactions.size(); from += rowsPerStatement) {
+                    List<Transaction> chunk = transactions.subList(from, Math.min(from + rowsPerStatement, transactions.size()));
+                    if (chunk.size() == rowsPerStatement) {
+                        if (full == null) {
+                            full = connection.prepareStatement(insertSql(rowsPerStatement));
+                        }
+                        insertChunk(full, chunk);
+                    } else {
+                        try (PreparedStatement tail = connection.prepareStatement(insertSql(chunk.size()))) {
+                            insertChunk(tail, chunk);
+                        }
+                    }
+                }
+            } finally {
+                if (full != null) {
+                    full.close();
+                }
+            }
+            return transactions;
+        });
+    }
+
+    private void insertChunk(PreparedStatement ps, List<Transaction> chunk) throws SQLException {
+        int i = 1;
+        for (Transaction t : chunk) {
+            ps.setString(i++, t.getBarcode());
+            ps.setString(i++, t.getProductCode());
+            ps.setString(i++, t.getProductName());
+            ps.setBigDecimal(i++, t.getQuantity());
+            ps.setString(i++, t.getUnit());
+            ps.setString(i++, t.getBatchNo());
+            ps.setString(i++, t.getGrnNo());
+            ps.setString(i++, t.getMaterialType());
+            ps.setString(i++, t.getType());
+            ps.setString(i++, t.getParty());
+            // Same binding Hibernate uses, so both paths store identical values
+            ps.setTimestamp(i++, t.getCreatedAt() != null ? Timestamp.valueOf(t.getCreatedAt()) : null);
+        }
+
+        List<Long> ids = new ArrayList<>(chunk.size());
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        // RETURNING order is unspecified, but rowids are assigned in VALUES order
+        Collections.sort(ids);
+        for (int k = 0; k < chunk.size() && k < ids.size(); k++) {
+            chunk.get(k).setId(ids.get(k));
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO transactions (").append(COLUMNS).append(") VALUES ");
+        String tuple = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int r = 0; r < rows; r++) {
+            if (r > 0) {
+                sql.append(", ");
+            }
+            sql.append(tuple);
+        }
+        return sql.append(" RETURNING id").toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.warehouse.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.warehouse.dto.TransactionDTO;
+import com.warehouse.entity.Transaction;
+
+// Repository methods Spring Data cannot derive, implemented in TransactionRepositoryCustomImpl.
+// Rows are returned as TransactionDTOs built straight from the selected columns, so no
+// entities are loaded into (or dirty-checked by) the persistence context.
+public interface TransactionRepositoryCustom {
+
+    // All matching rows in sort order
+    List<TransactionDTO> findDTOs(Specification<Transaction> spec, Sort sort);
+
+    // First rows in sort order, without the COUNT query a Page would need
+    List<TransactionDTO> findDTOs(Specification<Transaction> spec, Sort sort, int limit);
+
+    // One page of matching rows; the count is skipped when the page shows it is the last
+    Page<TransactionDTO> findDTOs(Specification<Transaction> spec, Pageable pageable);
+
+    // Streams matching rows from a forward-only cursor; close the stream when done
+    Stream<TransactionDTO> streamDTOs(Specification<Transaction> spec, Sort sort);
+}
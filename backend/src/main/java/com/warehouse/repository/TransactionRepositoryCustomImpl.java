@@ -0,0 +1,86 @@
+package com.warehouse.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.warehouse.dto.TransactionDTO;
+import com.warehouse.entity.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+
+    private static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionDTO> findDTOs(Specification<Transaction> spec, Sort sort) {
+        return buildQuery(spec, sort).getResultList();
+    }
+
+    @Override
+    public List<TransactionDTO> findDTOs(Specification<Transaction> spec, Sort sort, int limit) {
+        return buildQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Page<TransactionDTO> findDTOs(Specification<Transaction> spec, Pageable pageable) {
+        List<TransactionDTO> content = buildQuery(spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Stream<TransactionDTO> streamDTOs(Specification<Transaction> spec, Sort sort) {
+        return buildQuery(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream();
+    }
+
+    // SELECT new TransactionDTO(...) over the columns the DTO carries
+    private TypedQuery<TransactionDTO> buildQuery(Specification<Transaction> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDTO> query = cb.createQuery(TransactionDTO.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(cb.construct(TransactionDTO.class,
+                root.get("id"), root.get("barcode"), root.get("productCode"), root.get("productName"),
+                root.get("quantity"), root.get("unit"), root.get("batchNo"), root.get("grnNo"),
+                root.get("materialType"), root.get("type"), root.get("party"), root.get("createdAt")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query.orderBy(QueryUtils.toOrders(sort, root, cb)));
+    }
+
+    private long count(Specification<Transaction> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query.select(cb.count(root))).getSingleResult();
+    }
+}
@@ -0,0 +1,79 @@
+package com.warehouse.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.warehouse.dto.TransactionFilter;
+import com.warehouse.entity.Transaction;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+// Builds transaction queries from only the filters actually supplied. A static
+// "(:x IS NULL OR col = :x)" query hides every condition from SQLite's planner;
+// emitting just the real predicates lets it use the type, material type and
+// created_at indexes, and the full-text index for party and product name.
+public final class TransactionSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> matching(TransactionFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.getType()));
+            }
+            if (filter.getMaterialType() != null) {
+                predicates.add(cb.equal(root.get("materialType"), filter.getMaterialType()));
+            }
+            if (filter.getStartDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getStartDate()));
+            }
+            if (filter.getEndDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.getEndDate()));
+            }
+            if (filter.getParty() != null) {
+                predicates.add(contains(cb, root, "party", "party", filter.getParty()));
+            }
+            if (filter.getProductName() != null) {
+                predicates.add(contains(cb, root, "productName", "product_name", filter.getProductName()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Rows strictly after (createdAt, id) in newest-first order, for keyset pagination
+    public static Specification<Transaction> after(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.lessThan(root.get("id"), id)));
+    }
+
+    // Case-insensitive substring match, answered by the transactions_fts trigram
+    // index when the term is long enough for it
+    private static Predicate contains(CriteriaBuilder cb, Root<Transaction> root, String attribute,
+                                      String ftsColumn, String value) {
+        if (FullTextSearch.isSearchable(value)) {
+            return cb.isTrue(cb.function("transactions_fts_match", Boolean.class, root.get("id"),
+                    cb.literal(FullTextSearch.columnPhrase(ftsColumn, value))));
+        }
+        return containsIgnoreCase(cb, root.get(attribute), value);
+    }
+
+    private static Predicate containsIgnoreCase(CriteriaBuilder cb, Expression<String> column, String value) {
+        String escaped = value.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return cb.like(cb.lower(column), "%" + escaped + "%", LIKE_ESCAPE);
+    }
+}
@@ -0,0 +1,196 @@
+package com.warehouse.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.warehouse.dto.MovementTotalDTO;
+import com.warehouse.service.TransactionColumnStore.Snapshot;
+
+// Ad-hoc filter + aggregate queries over the whole ledger, answered from the
+// TransactionColumnStore instead of the database. The rows are split into one
+// range per core; each range is scanned into its own per-group sums and the
+// partial results are added up at the end.
+@Service
+public class AnalyticsService {
+
+    // Ranges smaller than this are not worth a separate task
+    private static final int MIN_ROWS_PER_TASK = 16_384;
+
+    @Autowired
+    private TransactionColumnStore columnStore;
+
+    // What the rows are grouped by
+    private enum Grouping {
+        NONE, PRODUCT_CODE, PARTY, UNIT, MATERIAL_TYPE, TYPE, DAY, MONTH
+    }
+
+    // Per-group sums of one scanned range
+    private static final class Partial {
+        final long[] count;
+        final long[] quantityIn;
+        final long[] quantityOut;
+
+        Partial(int groups) {
+            count = new long[groups];
+            quantityIn = new long[groups];
+            quantityOut = new long[groups];
+        }
+
+        Partial merge(Partial other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                quantityIn[g] += other.quantityIn[g];
+                quantityOut[g] += other.quantityOut[g];
+            }
+            return this;
+        }
+    }
+
+    // IN/OUT totals of the transactions matching every given filter (null means
+    // any), grouped by "none", "productCode", "party", "unit", "materialType",
+    // "type", "day" or "month". Dates are inclusive. Throws
+    // IllegalArgumentException for an unknown grouping.
+    public List<MovementTotalDTO> aggregate(String groupBy, String type, String materialType, String productCode,
+                                            String party, String unit, LocalDate startDate, LocalDate endDate) {
+        Grouping grouping = parseGrouping(groupBy);
+        Snapshot s = columnStore.snapshot();
+
+        // Equality filters become dictionary codes; a value never seen matches nothing
+        int productCodeFilter = productCode == null ? -1 : columnStore.productCodes().code(productCode);
+        int partyFilter = party == null ? -1 : columnStore.parties().code(party);
+        int unitFilter = unit == null ? -1 : columnStore.units().code(unit);
+        int materialTypeFilter = materialType == null ? -1 : columnStore.materialTypes().code(materialType);
+        int typeFilter = type == null ? -1
+                : "IN".equalsIgnoreCase(type) ? TransactionColumnStore.TYPE_IN
+                : "OUT".equalsIgnoreCase(type) ? TransactionColumnStore.TYPE_OUT : -2;
+        if (s.size == 0 || (productCode != null && productCodeFilter < 0) || (party != null && partyFilter < 0)
+                || (unit != null && unitFilter < 0) || (materialType != null && materialTypeFilter < 0)
+                || typeFilter == -2) {
+            return new ArrayList<>();
+        }
+        long from = startDate == null ? Long.MIN_VALUE : toMillis(startDate);
+        long to = endDate == null ? Long.MAX_VALUE : toMillis(endDate.plusDays(1)) - 1;
+
+        int groups = groupCount(grouping, s);
+
+        int tasks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), s.size / MIN_ROWS_PER_TASK));
+        int rowsPerTask = (s.size + tasks - 1) / tasks;
+        Partial total = IntStream.range(0, tasks).parallel()
+                .mapToObj(task -> {
+                    Partial partial = new Partial(groups);
+                    int end = Math.min(s.size, (task + 1) * rowsPerTask);
+                    for (int i = task * rowsPerTask; i < end; i++) {
+                        if (s.isDeleted(i) || s.createdAt[i] < from || s.createdAt[i] > to
+                                || (productCodeFilter >= 0 && s.productCode[i] != productCodeFilter)
+                                || (partyFilter >= 0 && s.party[i] != partyFilter)
+                                || (unitFilter >= 0 && s.unit[i] != unitFilter)
+                                || (materialTypeFilter >= 0 && s.materialType[i] != materialTypeFilter)
+                                || (typeFilter >= 0 && s.type[i] != typeFilter)) {
+                            continue;
+                        }
+                        int g = group(grouping, s, i);
+                        partial.count[g]++;
+                        if (s.type[i] == TransactionColumnStore.TYPE_IN) {
+                            partial.quantityIn[g] += s.quantity[i];
+                        } else {
+                            partial.quantityOut[g] += s.quantity[i];
+                        }
+                    }
+                    return partial;
+                })
+                .reduce(Partial::merge)
+                .orElseGet(() -> new Partial(groups));
+
+        List<MovementTotalDTO> result = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (total.count[g] == 0) {
+                continue;
+            }
+            MovementTotalDTO dto = new MovementTotalDTO();
+            if (grouping == Grouping.DAY) {
+                dto.setPeriod(s.days[g].toString());
+            } else if (grouping == Grouping.MONTH) {
+                dto.setPeriod(s.months[g].toString());
+            } else {
+                dto.setKey(groupName(grouping, s, g));
+            }
+            dto.setQuantityIn(TransactionColumnStore.toQuantity(total.quantityIn[g]));
+            dto.setQuantityOut(TransactionColumnStore.toQuantity(total.quantityOut[g]));
+            dto.setNet(TransactionColumnStore.toQuantity(total.quantityIn[g] - total.quantityOut[g]));
+            dto.setTransactionCount(total.count[g]);
+            result.add(dto);
+        }
+        if (grouping == Grouping.DAY || grouping == Grouping.MONTH) {
+            // Codes follow the order days were first seen; ISO periods sort by date
+            result.sort(Comparator.comparing(MovementTotalDTO::getPeriod));
+        } else if (grouping != Grouping.NONE) {
+            result.sort(Comparator.comparing(MovementTotalDTO::getKey));
+        }
+        return result;
+    }
+
+    private static Grouping parseGrouping(String groupBy) {
+        switch (groupBy == null ? "none" : groupBy) {
+            case "none": return Grouping.NONE;
+            case "productCode": return Grouping.PRODUCT_CODE;
+            case "party": return Grouping.PARTY;
+            case "unit": return Grouping.UNIT;
+            case "materialType": return Grouping.MATERIAL_TYPE;
+            case "type": return Grouping.TYPE;
+            case "day": return Grouping.DAY;
+            case "month": return Grouping.MONTH;
+            default:
+                throw new IllegalArgumentException(
+                        "groupBy must be none, productCode, party, unit, materialType, type, day or month");
+        }
+    }
+
+    private static int groupCount(Grouping grouping, Snapshot s) {
+        switch (grouping) {
+            // Every code in the snapshot is below the length of its dictionary
+            case PRODUCT_CODE: return s.productCodes.length;
+            case PARTY: return s.parties.length;
+            case UNIT: return s.units.length;
+            case MATERIAL_TYPE: return s.materialTypes.length;
+            case TYPE: return 2;
+            case DAY: return s.dayCount;
+            case MONTH: return s.monthCount;
+            default: return 1;
+        }
+    }
+
+    private static int group(Grouping grouping, Snapshot s, int row) {
+        switch (grouping) {
+            case PRODUCT_CODE: return s.productCode[row];
+            case PARTY: return s.party[row];
+            case UNIT: return s.unit[row];
+            case MATERIAL_TYPE: return s.materialType[row];
+            case TYPE: return s.type[row];
+            case DAY: return s.day[row];
+            case MONTH: return s.monthOfDay[s.day[row]];
+            default: return 0;
+        }
+    }
+
+    private static String groupName(Grouping grouping, Snapshot s, int group) {
+        switch (grouping) {
+            case PRODUCT_CODE: return s.productCodes[group];
+            case PARTY: return s.parties[group];
+            case UNIT: return s.units[group];
+            case MATERIAL_TYPE: return s.materialTypes[group];
+            case TYPE: return group == TransactionColumnStore.TYPE_IN ? "IN" : "OUT";
+            default: return null;
+        }
+    }
+
+    private static long toMillis(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
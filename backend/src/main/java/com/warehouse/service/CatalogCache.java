@@ -0,0 +1,110 @@
+package com.warehouse.service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.dto.ApiResponse;
+
+// Change versions of the catalog tables, which are read on every screen but
+// rarely written. Each service write bumps its table's version after the
+// write is committed. A version becomes the ETag of every response built from
+// that table, so a client's If-None-Match can be answered without a query,
+// and the serialized response body is kept until the version moves on.
+@Component
+public class CatalogCache {
+
+    public enum Table {
+        SUPPLIERS, PRODUCT_NAMES, PRODUCTS
+    }
+
+    // A serialized ApiResponse and the ETag of the version it was read at
+    public static final class Body {
+        private final String etag;
+        private final byte[] json;
+
+        private Body(String etag, byte[] json) {
+            this.etag = etag;
+            this.json = json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+    }
+
+    // Versions restart at zero, so ETags also carry the start time; an ETag
+    // from before a restart never matches
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Table, AtomicLong> versions = new EnumMap<>(Table.class);
+
+    private final Map<String, Body> bodies = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public CatalogCache() {
+        for (Table table : Table.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    // Call after the write has committed. Bumping earlier would let a reader
+    // cache the old rows under the new version.
+    public void bump(Table table) {
+        versions.get(table).incrementAndGet();
+    }
+
+    public long version(Table table) {
+        return versions.get(table).get();
+    }
+
+    // ETag of the view at the table's current version. A view is one response
+    // shape built from the table, e.g. the full product list or its summary.
+    public String etag(Table table, String view) {
+        return etag(view, version(table));
+    }
+
+    // The view's response body, serialized once per table version. The version
+    // is read before loading, so a write committed during the load only makes
+    // the next request load again.
+    public Body body(Table table, String view, Supplier<?> loader) {
+        long version = version(table);
+        String etag = etag(view, version);
+        Body cached = bodies.get(view);
+        if (cached != null && cached.etag.equals(etag)) {
+            return cached;
+        }
+        try {
+            Body body = new Body(etag, objectMapper.writeValueAsBytes(ApiResponse.success(loader.get())));
+            bodies.put(view, body);
+            return body;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + view, e);
+        }
+    }
+
+    // Current versions, for /api/status
+    public Map<String, Object> getVersions() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        versions.forEach((table, version) -> result.put(table.name().toLowerCase(), version.get()));
+        return result;
+    }
+
+    private String etag(String view, long version) {
+        return "\"" + view + "-" + epoch + "-" + version + "\"";
+    }
+}
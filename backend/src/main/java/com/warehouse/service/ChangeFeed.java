@@ -0,0 +1,357 @@
+package com.warehouse.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.warehouse.dto.TransactionDTO;
+import com.warehouse.event.ProductDeletedEvent;
+import com.warehouse.event.ProductsSavedEvent;
+import com.warehouse.event.TransactionsDeletedEvent;
+import com.warehouse.event.TransactionsSavedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Server-sent events feed of committed changes, so clients can apply deltas
+// instead of polling whole tables. Every event gets an id "<start time>-<n>"
+// and is kept in a ring buffer of the most recent events; a client that
+// reconnects with Last-Event-ID is sent what it missed, or a reload event when
+// that is no longer in the buffer. Events are serialized once on one feed
+// thread and queued in a small outbox per client. Each outbox is written out
+// by its own sender task, so a client that stops reading holds up only its
+// own writes, never the feed, the other clients or the database writer. A
+// client whose outbox fills up is disconnected; when it reconnects with
+// Last-Event-ID it gets the events it missed, or a reload.
+@Component
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // Event names; the data is JSON
+    public static final String TRANSACTIONS_CREATED = "transactions-created"; // [TransactionDTO]
+    public static final String TRANSACTION_DELETED = "transaction-deleted";   // {"id": ...}
+    public static final String PRODUCTS_SAVED = "products-saved";             // [Product]
+    public static final String PRODUCT_DELETED = "product-deleted";           // {"id": ...}
+    public static final String RELOAD = "reload";                             // {"scope": "transactions" | "products" | "all"}
+    public static final String CONNECTED = "connected";                       // {"lastEventId": ...}
+
+    private static final String SCOPE_TRANSACTIONS = "transactions";
+    private static final String SCOPE_PRODUCTS = "products";
+    private static final String SCOPE_ALL = "all";
+
+    private static final MediaType TEXT_PLAIN = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private static final String HEARTBEAT = ":\n\n";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    // Events kept for clients resuming with Last-Event-ID
+    @Value("${warehouse.events.buffer-size:1024}")
+    private int bufferSize;
+
+    // Larger batches, such as uploads, are announced as a reload instead of row by row
+    @Value("${warehouse.events.max-delta-rows:100}")
+    private int maxDeltaRows;
+
+    // Reloads requested within this delay are sent as one event
+    @Value("${warehouse.events.reload-delay-ms:1000}")
+    private long reloadDelayMillis;
+
+    // Comment lines sent to idle connections, which also detects closed ones
+    @Value("${warehouse.events.heartbeat-seconds:20}")
+    private long heartbeatSeconds;
+
+    // Events a client may fall behind by before it is disconnected
+    @Value("${warehouse.events.outbox-size:256}")
+    private int outboxSize;
+
+    // Sequence numbers restart at zero, so ids also carry the start time; an id
+    // from before a restart cannot be resumed
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService executor;
+
+    // Runs the sender tasks. At most one task per client, and a blocked one
+    // only waits for its own socket, so the pool grows with stalled clients
+    // instead of letting them hold up the others.
+    private ExecutorService senders;
+
+    private final AtomicLong disconnectedSlowClients = new AtomicLong();
+
+    // Only touched on the feed thread: the serialized frames of the recent
+    // events, and the reloads waiting to be sent
+    private String[] buffer;
+    private final Set<String> pendingReloads = new HashSet<>();
+
+    private volatile long lastSequence;
+
+    @PostConstruct
+    public void start() {
+        buffer = new String[bufferSize];
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    // Opens a feed for a client. Events after lastEventId are replayed first;
+    // without one the feed starts at the next change, so clients should
+    // subscribe before loading the data they keep up to date.
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        // On the feed thread, so no event is sent between the replay and the registration
+        executor.execute(() -> {
+            List<String> frames;
+            try {
+                frames = replay(lastEventId);
+                String id = eventId(lastSequence);
+                frames.add(frame(id, CONNECTED, objectMapper.writeValueAsString(Map.of("lastEventId", id))));
+            } catch (JsonProcessingException e) {
+                emitter.completeWithError(e);
+                return;
+            }
+            // Room for the replay on top of the usual outbox
+            Subscriber subscriber = new Subscriber(emitter, frames.size() + outboxSize);
+            emitter.onCompletion(() -> subscribers.remove(subscriber));
+            emitter.onTimeout(() -> subscribers.remove(subscriber));
+            emitter.onError(e -> subscribers.remove(subscriber));
+            subscribers.add(subscriber);
+            frames.forEach(subscriber::offer);
+        });
+        return emitter;
+    }
+
+    // Counters for /api/status
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("lastEventId", eventId(lastSequence));
+        stats.put("disconnectedSlowClients", disconnectedSlowClients.get());
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsSaved(TransactionsSavedEvent event) {
+        if (event.getTransactions().size() > maxDeltaRows) {
+            executor.execute(() -> requestReload(SCOPE_TRANSACTIONS));
+            return;
+        }
+        List<TransactionDTO> transactions = event.getTransactions().stream()
+                .map(transactionMapper::toDTO)
+                .collect(Collectors.toList());
+        executor.execute(() -> publish(TRANSACTIONS_CREATED, transactions));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsDeleted(TransactionsDeletedEvent event) {
+        if (event.getIds().size() > maxDeltaRows) {
+            executor.execute(() -> requestReload(SCOPE_TRANSACTIONS));
+            return;
+        }
+        executor.execute(() -> event.getIds().forEach(id -> publish(TRANSACTION_DELETED, Map.of("id", id))));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsSaved(ProductsSavedEvent event) {
+        if (event.getProducts().size() > maxDeltaRows) {
+            executor.execute(() -> requestReload(SCOPE_PRODUCTS));
+            return;
+        }
+        executor.execute(() -> publish(PRODUCTS_SAVED, event.getProducts()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        executor.execute(() -> publish(PRODUCT_DELETED, Map.of("id", event.getId())));
+    }
+
+    // Feed thread only: numbers and buffers the event, then queues it for every client
+    private void publish(String name, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize {} event", name, e);
+            return;
+        }
+        long sequence = lastSequence + 1;
+        String frame = frame(eventId(sequence), name, json);
+        buffer[(int) (sequence % bufferSize)] = frame;
+        lastSequence = sequence;
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    // Feed thread only
+    private void requestReload(String scope) {
+        if (pendingReloads.add(scope)) {
+            executor.schedule(() -> {
+                pendingReloads.remove(scope);
+                publish(RELOAD, Map.of("scope", scope));
+            }, reloadDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Feed thread only. The buffered events after lastEventId, or a reload when
+    // the id is unknown, from before a restart or already overwritten.
+    private List<String> replay(String lastEventId) throws JsonProcessingException {
+        List<String> frames = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return frames;
+        }
+        long after = parseSequence(lastEventId.trim());
+        long oldest = Math.max(1, lastSequence - bufferSize + 1);
+        if (after < 0 || after > lastSequence || after < oldest - 1) {
+            frames.add(frame(null, RELOAD, objectMapper.writeValueAsString(Map.of("scope", SCOPE_ALL))));
+            return frames;
+        }
+        for (long sequence = after + 1; sequence <= lastSequence; sequence++) {
+            frames.add(buffer[(int) (sequence % bufferSize)]);
+        }
+        return frames;
+    }
+
+    // Feed thread only. Clients with writes still queued are not idle.
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.outbox.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    // A client's emitter and the frames not yet written to it
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<String> outbox;
+        // Set while a sender task is writing the outbox out
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(capacity);
+        }
+
+        // Feed thread only. Disconnects the client instead of waiting for room.
+        void offer(String frame) {
+            if (closed) {
+                return;
+            }
+            if (!outbox.offer(frame)) {
+                disconnectedSlowClients.incrementAndGet();
+                logger.debug("Change feed client fell {} events behind, disconnecting it", outbox.size());
+                close();
+                // Completing waits for a write in progress, so not on the feed thread
+                senders.execute(emitter::complete);
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // Sender task: writes queued frames until the outbox is empty
+        void drain() {
+            try {
+                String frame;
+                while (!closed && (frame = outbox.poll()) != null) {
+                    send(emitter, frame);
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            sending.set(false);
+            // A frame queued after the last poll but before the flag was cleared
+            if (!closed && !outbox.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            outbox.clear();
+        }
+    }
+
+    // One event in the text/event-stream format. Serialized JSON has no line
+    // breaks, so the data fits on one data line.
+    private static String frame(String id, String name, String json) {
+        return (id != null ? "id:" + id + "\n" : "") + "event:" + name + "\ndata:" + json + "\n\n";
+    }
+
+    // Writes a whole frame as one piece. SseEmitter's event builder splits an
+    // event into several pieces, and Spring 6.1.1 keeps the pieces of events
+    // sent before the response is ready in a set, dropping the repeated ones.
+    private static void send(SseEmitter emitter, String frame) throws IOException {
+        emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(frame, TEXT_PLAIN)));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // Sequence number of an id from this run, or -1
+    private long parseSequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.warehouse.service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import com.warehouse.dto.TransactionDTO;
+
+// Streams a transactions CSV record by record. Columns are matched by header
+// name, so exports with extra or reordered columns still import; each record
+// is copied into one reused TransactionRowDecoder.
+@Component
+public class CsvTransactionReader implements TransactionFileReader {
+
+    private static final Map<String, Integer> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("barcode", TransactionRowDecoder.BARCODE);
+        COLUMNS.put("productcode", TransactionRowDecoder.PRODUCT_CODE);
+        COLUMNS.put("code", TransactionRowDecoder.PRODUCT_CODE);
+        COLUMNS.put("productname", TransactionRowDecoder.PRODUCT_NAME);
+        COLUMNS.put("name", TransactionRowDecoder.PRODUCT_NAME);
+        COLUMNS.put("quantity", TransactionRowDecoder.QUANTITY);
+        COLUMNS.put("qty", TransactionRowDecoder.QUANTITY);
+        COLUMNS.put("unit", TransactionRowDecoder.UNIT);
+        COLUMNS.put("batchno", TransactionRowDecoder.BATCH_NO);
+        COLUMNS.put("grnno", TransactionRowDecoder.GRN_NO);
+        COLUMNS.put("materialtype", TransactionRowDecoder.MATERIAL_TYPE);
+        COLUMNS.put("type", TransactionRowDecoder.TYPE);
+        COLUMNS.put("party", TransactionRowDecoder.PARTY);
+        COLUMNS.put("date", TransactionRowDecoder.DATE);
+        COLUMNS.put("createdat", TransactionRowDecoder.DATE);
+    }
+
+    @Override
+    public int read(File file, int chunkSize, UploadJob job, Consumer<List<TransactionDTO>> sink) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             CSVReader csv = new CSVReaderBuilder(in).build()) {
+
+            String[] header = csv.readNext();
+            if (header == null) {
+                return 0;
+            }
+            int[] targets = mapHeader(header, COLUMNS);
+
+            TransactionRowDecoder decoder = new TransactionRowDecoder();
+            List<TransactionDTO> chunk = new ArrayList<>(chunkSize);
+            int emitted = 0;
+            String[] record;
+            while ((record = csv.readNext()) != null) {
+                if (isBlank(record)) {
+                    continue;
+                }
+                job.rowParsed();
+                decoder.reset();
+                for (int i = 0; i < record.length && i < targets.length; i++) {
+                    if (targets[i] >= 0 && !record[i].isEmpty()) {
+                        decoder.setString(targets[i], record[i]);
+                    }
+                }
+
+                TransactionDTO transaction = decoder.decode();
+                if (transaction == null) {
+                    job.rowRejected();
+                    continue;
+                }
+                chunk.add(transaction);
+                if (chunk.size() >= chunkSize) {
+                    emitted += chunk.size();
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                emitted += chunk.size();
+                sink.accept(chunk);
+            }
+            return emitted;
+        } catch (CsvValidationException e) {
+            throw new IOException("Invalid CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    // Maps each CSV column position to a target column, -1 for unknown headers
+    static int[] mapHeader(String[] header, Map<String, Integer> columns) {
+        int[] targets = new int[header.length];
+        for (int i = 0; i < header.length; i++) {
+            Integer target = columns.get(normalizeHeader(header[i]));
+            targets[i] = target != null ? target : -1;
+        }
+        return targets;
+    }
+
+    // "Product Code", "product_code" and a BOM-prefixed "ProductCode" all become "productcode"
+    static String normalizeHeader(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    static boolean isBlank(String[] record) {
+        for (String value : record) {
+            if (!value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,245 @@
+package com.warehouse.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Runs every database write on one dedicated thread, so SQLite's single
+// writer lock is never contended inside the application. Writes that arrive
+// within a short window of each other are committed together in one
+// transaction (group commit). If a group fails, each write in it is retried
+// on its own, so one bad write cannot fail the others.
+//
+// A write can therefore run twice, the first time in a group that was rolled
+// back. Work must only change the database; anything else, such as in-memory
+// indexes, is registered to run after commit, so a rolled back attempt leaves
+// nothing behind. Work must also not depend on what a failed attempt changed
+// in objects it was handed, e.g. the id a save assigned to a new entity.
+@Component
+public class DatabaseWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseWriter.class);
+
+    // A queued write and the future its caller waits on
+    private static final class Write<T> {
+        final Supplier<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+
+        Write(Supplier<T> work) {
+            this.work = work;
+        }
+
+        void run() {
+            result = work.get();
+        }
+    }
+
+    // Queued by stop() after the last write; the writer thread exits when it takes it
+    private static final Write<Object> STOP = new Write<>(() -> null);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // How long the writer waits for more writes to join a group
+    @Value("${warehouse.writer.group-window-ms:2}")
+    private long groupWindowMillis;
+
+    @Value("${warehouse.writer.max-group-size:64}")
+    private int maxGroupSize;
+
+    // How long stop() waits for the queued writes to finish
+    @Value("${warehouse.writer.stop-timeout-ms:30000}")
+    private long stopTimeoutMillis;
+
+    private final BlockingQueue<Write<?>> queue = new LinkedBlockingQueue<>();
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong retriedGroups = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+
+    private Thread thread;
+
+    // Written under the queue's lock, so no write is queued after STOP
+    private boolean running;
+
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        synchronized (queue) {
+            running = true;
+        }
+        thread = new Thread(this::run, "database-writer");
+        thread.start();
+    }
+
+    // Finishes the writes already queued, then stops the thread. The thread is
+    // not interrupted, as that could land inside Hibernate or the JDBC driver
+    // in the middle of a commit. Writes still queued when the timeout runs out
+    // are failed, so no caller is left waiting.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        synchronized (queue) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            queue.add(STOP);
+        }
+        thread.join(stopTimeoutMillis);
+
+        List<Write<?>> left = new ArrayList<>();
+        queue.drainTo(left);
+        left.remove(STOP);
+        if (!left.isEmpty() || thread.isAlive()) {
+            logger.warn("Database writer did not finish in {} ms, failing {} queued writes",
+                    stopTimeoutMillis, left.size());
+            // Lets the thread exit after the write it is busy with
+            queue.add(STOP);
+        }
+        for (Write<?> write : left) {
+            write.future.completeExceptionally(new IllegalStateException("Database writer is stopped"));
+        }
+    }
+
+    // Runs the work in a write transaction on the writer thread and returns its
+    // result once committed; see the class comment for what the work may do.
+    // Runtime exceptions thrown by the work are rethrown
+    // to the caller. Calls made from the writer thread itself run directly in
+    // the current transaction.
+    public <T> T execute(Supplier<T> work) {
+        if (Thread.currentThread() == thread) {
+            return work.get();
+        }
+        try {
+            return submit(work).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public void execute(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Queues the work; the future completes after its transaction commits
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        Write<T> write = new Write<>(work);
+        synchronized (queue) {
+            if (!running) {
+                throw new IllegalStateException("Database writer is stopped");
+            }
+            queue.add(write);
+        }
+        return write.future;
+    }
+
+    // Counters for /api/status
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long committed = commits.get();
+        stats.put("writes", writes.get());
+        stats.put("commits", committed);
+        stats.put("averageGroupSize", committed == 0 ? 0.0 : (double) writes.get() / committed);
+        stats.put("retriedGroups", retriedGroups.get());
+        stats.put("queued", queue.size());
+        return stats;
+    }
+
+    private void run() {
+        List<Write<?>> group = new ArrayList<>(maxGroupSize);
+        boolean stopped = false;
+        while (!stopped) {
+            try {
+                Write<?> first = queue.take();
+                if (first == STOP) {
+                    break;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupWindowMillis);
+                while (group.size() < maxGroupSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Write<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next == STOP) {
+                        stopped = true;
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only STOP ends the thread; commit what was collected
+                if (group.isEmpty()) {
+                    continue;
+                }
+            }
+            commit(group);
+            group.clear();
+        }
+    }
+
+    private void commit(List<Write<?>> group) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> group.forEach(Write::run));
+            commits.incrementAndGet();
+            writes.addAndGet(group.size());
+            for (Write<?> write : group) {
+                complete(write);
+            }
+        } catch (RuntimeException | Error e) {
+            if (group.size() == 1) {
+                group.get(0).future.completeExceptionally(e);
+                return;
+            }
+            // Find the failing write by running each one in its own transaction
+            retriedGroups.incrementAndGet();
+            logger.debug("Group of {} writes failed, retrying them one by one", group.size(), e);
+            for (Write<?> write : group) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write.run());
+                    commits.incrementAndGet();
+                    writes.incrementAndGet();
+                    complete(write);
+                } catch (RuntimeException | Error single) {
+                    write.future.completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private static <T> void complete(Write<T> write) {
+        write.future.complete(write.result);
+    }
+}
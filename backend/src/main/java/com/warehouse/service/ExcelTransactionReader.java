@@ -0,0 +1,250 @@
+package com.warehouse.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import com.warehouse.dto.TransactionDTO;
+
+// Streams the first sheet of an .xlsx file with the OOXML SAX reader so that
+// only the shared strings table and the current row are held in memory.
+@Component
+public class ExcelTransactionReader implements TransactionFileReader {
+
+    // The header row is skipped; columns are taken by position
+    @Override
+    public int read(File file, int chunkSize, UploadJob job, Consumer<List<TransactionDTO>> sink) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            SheetHandler handler = new SheetHandler(sharedStrings, styles, chunkSize, job, sink);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(handler);
+                parser.parse(new InputSource(sheet));
+            }
+            handler.flush();
+            return handler.emitted;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final int chunkSize;
+        private final UploadJob job;
+        private final Consumer<List<TransactionDTO>> sink;
+        private final TransactionRowDecoder decoder = new TransactionRowDecoder();
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+        // Shared-string index -> interned value for the low-cardinality columns
+        private final Map<Integer, String> internedSharedStrings = new HashMap<>();
+
+        private int rowIndex = -1;
+
+        // Current cell
+        private int column;
+        private String cellType;
+        private int styleIndex;
+        private boolean inValue;
+        private final StringBuilder value = new StringBuilder();
+
+        private List<TransactionDTO> chunk;
+        private int emitted;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles,
+                     int chunkSize, UploadJob job, Consumer<List<TransactionDTO>> sink) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.chunkSize = chunkSize;
+            this.job = job;
+            this.sink = sink;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "dimension":
+                    // "A1:K200001" gives the expected row count for progress reporting
+                    String range = attributes.getValue("ref");
+                    int colon = range != null ? range.indexOf(':') : -1;
+                    if (colon > 0) {
+                        long lastRow = rowNumber(range, colon + 1);
+                        if (lastRow > 1) {
+                            job.setRowsTotal(lastRow - 1);
+                        }
+                    }
+                    break;
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? (int) rowNumber(r, 0) - 1 : rowIndex + 1;
+                    column = -1;
+                    decoder.reset();
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? columnIndex(ref) : column + 1;
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    styleIndex = s != null ? (int) rowNumber(s, 0) : -1;
+                    value.setLength(0);
+                    break;
+                case "v":
+                case "t":
+                    inValue = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    inValue = false;
+                    break;
+                case "c":
+                    if (column >= 0 && column < TransactionRowDecoder.COLUMN_COUNT) {
+                        storeCell(column);
+                    }
+                    break;
+                case "row":
+                    // Skip header row (row 0)
+                    if (rowIndex > 0) {
+                        job.rowParsed();
+                        TransactionDTO transaction = decoder.decode();
+                        if (transaction != null) {
+                            chunk.add(transaction);
+                            if (chunk.size() >= chunkSize) {
+                                flush();
+                            }
+                        } else {
+                            job.rowRejected();
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void flush() {
+            if (!chunk.isEmpty()) {
+                emitted += chunk.size();
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        // Formula cells are read from their cached result, like any other cell
+        private void storeCell(int col) {
+            if (value.length() == 0) {
+                return;
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                try {
+                    decoder.setNumber(col, Double.parseDouble(value.toString()), isDateStyle(styleIndex));
+                } catch (NumberFormatException e) {
+                    // Leave the cell blank
+                }
+                return;
+            }
+            switch (cellType) {
+                case "s":
+                    int index = (int) rowNumber(value, 0);
+                    if (TransactionRowDecoder.isInterned(col)) {
+                        decoder.setString(col, internedSharedStrings.computeIfAbsent(index,
+                                i -> decoder.intern(sharedStrings.getItemAt(i).getString().trim())));
+                    } else {
+                        decoder.setString(col, sharedStrings.getItemAt(index).getString());
+                    }
+                    break;
+                case "inlineStr":
+                case "str":
+                    decoder.setString(col, value.toString());
+                    break;
+                case "b":
+                    decoder.setBoolean(col, value.length() == 1 && value.charAt(0) == '1');
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private boolean isDateStyle(int index) {
+            if (index < 0 || styles == null) {
+                return false;
+            }
+            return dateStyles.computeIfAbsent(index, i -> {
+                XSSFCellStyle style = styles.getStyleAt(i);
+                return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        // Digits of "AB12" from the given offset -> 12, without allocating a substring
+        private static long rowNumber(CharSequence ref, int from) {
+            long row = 0;
+            for (int i = from; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    row = row * 10 + (c - '0');
+                }
+            }
+            return row;
+        }
+
+        // "AB12" -> 27
+        private static int columnIndex(String ref) {
+            int col = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                col = col * 26 + (c - 'A' + 1);
+            }
+            return col - 1;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.warehouse.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+// Writes rows as newline-delimited JSON, one object per line, through a single
+// Jackson generator as they arrive from the database. Uses the application's
+// ObjectMapper, so each line has the same shape as the row in a JSON response.
+@Component
+public class NdjsonWriter {
+
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-ndjson");
+
+    // Rows written between flushes, so clients start receiving rows early
+    private static final int FLUSH_EVERY = 256;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Receives a row callback and feeds every row to it
+    public interface RowSource<T> {
+        void forEach(Consumer<T> row);
+    }
+
+    public <T> void write(RowSource<T> rows, OutputStream out) throws IOException {
+        // Flushing is left to this class instead of after every row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // Lines are ended explicitly instead of separating root values with a space
+            generator.setRootValueSeparator(null);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int[] written = {0};
+            try {
+                rows.forEach(row -> {
+                    try {
+                        writer.writeValue(generator, row);
+                        generator.writeRaw('\n');
+                        if (++written[0] % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.warehouse.service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import com.warehouse.entity.MaterialType;
+import com.warehouse.entity.Product;
+
+import jakarta.validation.Validator;
+
+// Streams a products CSV into chunks of validated Product entities. Columns
+// are matched by header name like CsvTransactionReader; rows that fail to
+// parse or violate the entity constraints are counted as rejected.
+@Component
+public class ProductCsvReader {
+
+    private static final int PRODUCT_CODE = 0;
+    private static final int PRODUCT_NAME = 1;
+    private static final int PACKETS = 2;
+    private static final int QTY_PER_PACKET = 3;
+    private static final int QUANTITY = 4;
+    private static final int UNIT = 5;
+    private static final int BATCH_NO = 6;
+    private static final int GRN_NO = 7;
+    private static final int SALES_INVOICE_NO = 8;
+    private static final int MATERIAL_TYPE = 9;
+    private static final int SOURCE = 10;
+    private static final int DATE_ADDED = 11;
+    private static final int COLUMN_COUNT = 12;
+
+    private static final Map<String, Integer> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("productcode", PRODUCT_CODE);
+        COLUMNS.put("code", PRODUCT_CODE);
+        COLUMNS.put("productname", PRODUCT_NAME);
+        COLUMNS.put("name", PRODUCT_NAME);
+        COLUMNS.put("packets", PACKETS);
+        COLUMNS.put("qtyperpacket", QTY_PER_PACKET);
+        COLUMNS.put("quantityperpacket", QTY_PER_PACKET);
+        COLUMNS.put("quantity", QUANTITY);
+        COLUMNS.put("qty", QUANTITY);
+        COLUMNS.put("unit", UNIT);
+        COLUMNS.put("batchno", BATCH_NO);
+        COLUMNS.put("grnno", GRN_NO);
+        COLUMNS.put("salesinvoiceno", SALES_INVOICE_NO);
+        COLUMNS.put("materialtype", MATERIAL_TYPE);
+        COLUMNS.put("source", SOURCE);
+        COLUMNS.put("dateadded", DATE_ADDED);
+        COLUMNS.put("date", DATE_ADDED);
+    }
+
+    @Autowired
+    private Validator validator;
+
+    // Hands chunks of at most chunkSize valid products to the sink and returns
+    // how many were emitted in total
+    public int read(File file, int chunkSize, UploadJob job, Consumer<List<Product>> sink) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+             CSVReader csv = new CSVReaderBuilder(in).build()) {
+
+            String[] header = csv.readNext();
+            if (header == null) {
+                return 0;
+            }
+            int[] targets = CsvTransactionReader.mapHeader(header, COLUMNS);
+
+            String[] values = new String[COLUMN_COUNT];
+            List<Product> chunk = new ArrayList<>(chunkSize);
+            int emitted = 0;
+            String[] record;
+            while ((record = csv.readNext()) != null) {
+                if (CsvTransactionReader.isBlank(record)) {
+                    continue;
+                }
+                job.rowParsed();
+                Arrays.fill(values, null);
+                for (int i = 0; i < record.length && i < targets.length; i++) {
+                    if (targets[i] >= 0) {
+                        String value = record[i].trim();
+                        values[targets[i]] = value.isEmpty() ? null : value;
+                    }
+                }
+
+                Product product = toProduct(values);
+                if (product == null || !validator.validate(product).isEmpty()) {
+                    job.rowRejected();
+                    continue;
+                }
+                chunk.add(product);
+                if (chunk.size() >= chunkSize) {
+                    emitted += chunk.size();
+                    sink.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                emitted += chunk.size();
+                sink.accept(chunk);
+            }
+            return emitted;
+        } catch (CsvValidationException e) {
+            throw new IOException("Invalid CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    // Returns null when a number, material type or date cannot be parsed
+    private Product toProduct(String[] values) {
+        Product product = new Product();
+        product.setProductCode(values[PRODUCT_CODE]);
+        product.setProductName(values[PRODUCT_NAME]);
+        product.setUnit(values[UNIT]);
+        product.setBatchNo(values[BATCH_NO]);
+        product.setGrnNo(values[GRN_NO]);
+        product.setSalesInvoiceNo(values[SALES_INVOICE_NO]);
+        product.setSource(values[SOURCE]);
+
+        try {
+            if (values[PACKETS] != null) {
+                product.setPackets(Double.parseDouble(values[PACKETS]));
+            }
+            if (values[QTY_PER_PACKET] != null) {
+                product.setQtyPerPacket(Double.parseDouble(values[QTY_PER_PACKET]));
+            }
+            if (values[QUANTITY] != null) {
+                product.setQuantity(Double.parseDouble(values[QUANTITY]));
+            } else {
+                product.calculateQuantity();
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (values[MATERIAL_TYPE] != null) {
+            MaterialType materialType = parseMaterialType(values[MATERIAL_TYPE]);
+            if (materialType == null) {
+                return null;
+            }
+            product.setMaterialType(materialType);
+        }
+
+        if (values[DATE_ADDED] != null) {
+            LocalDateTime dateAdded = TransactionRowDecoder.parseDate(values[DATE_ADDED]);
+            if (dateAdded == null) {
+                return null;
+            }
+            product.setDateAdded(dateAdded);
+        }
+        return product;
+    }
+
+    // Accepts the enum name ("RM") or its display name ("Raw Materials")
+    private static MaterialType parseMaterialType(String value) {
+        for (MaterialType type : MaterialType.values()) {
+            if (type.name().equalsIgnoreCase(value) || type.getDisplayName().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
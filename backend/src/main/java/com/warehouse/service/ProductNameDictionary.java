@@ -0,0 +1,145 @@
+package com.warehouse.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.warehouse.entity.ProductName;
+import com.warehouse.repository.ProductBatchRepository;
+import com.warehouse.repository.ProductNameRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+// All known product names, held in memory so saving a product needs no lookup
+// in product_names. New names are queued and written in batches in the
+// background. Anything still queued is written on shutdown. After a crash,
+// the startup load restores names from the products table.
+@Component
+public class ProductNameDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductNameDictionary.class);
+
+    // Injected so the dictionary is loaded only after migrations and Hibernate have started
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductNameRepository productNameRepository;
+
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+
+    @Autowired
+    private DatabaseWriter databaseWriter;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private final Map<String, ProductName> names = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void load() {
+        int restored = productBatchRepository.insertMissingProductNames();
+        if (restored > 0) {
+            logger.info("Restored {} product names that were not yet written", restored);
+        }
+        for (ProductName productName : productNameRepository.findAll()) {
+            names.put(productName.getName(), productName);
+        }
+    }
+
+    public boolean contains(String name) {
+        return name != null && names.containsKey(name);
+    }
+
+    // Queues the name for writing unless it is already known, once the
+    // product save that uses it commits. The name is listed by getAll right
+    // away, so the version moves on then as well.
+    public void add(String name) {
+        AfterCommit.run(() -> addNow(name));
+    }
+
+    public void addAll(Collection<String> newNames) {
+        List<String> copy = new ArrayList<>(newNames);
+        AfterCommit.run(() -> copy.forEach(this::addNow));
+    }
+
+    private void addNow(String name) {
+        if (name != null && names.putIfAbsent(name, new ProductName(name)) == null) {
+            pending.add(name);
+            catalogCache.bump(CatalogCache.Table.PRODUCT_NAMES);
+        }
+    }
+
+    // Copy of all names in id order. Names still waiting to be written come
+    // last and have no id yet.
+    public List<ProductName> getAll() {
+        List<ProductName> result = new ArrayList<>(names.size());
+        for (ProductName productName : names.values()) {
+            ProductName copy = new ProductName(productName.getName());
+            copy.setId(productName.getId());
+            result.add(copy);
+        }
+        result.sort(Comparator.comparing(ProductName::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${warehouse.product-names.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Could not write product names, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownFlush() {
+        flush();
+    }
+
+    // Writes every queued name in one batch and fills in the generated ids
+    public synchronized void flush() {
+        List<String> batch = new ArrayList<>();
+        String name;
+        while ((name = pending.poll()) != null) {
+            batch.add(name);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> ids;
+        try {
+            ids = databaseWriter.execute(() -> {
+                productBatchRepository.insertProductNames(batch);
+                return productBatchRepository.findProductNameIds(batch);
+            });
+        } catch (RuntimeException e) {
+            pending.addAll(batch);
+            throw e;
+        }
+        ids.forEach((written, id) -> {
+            ProductName productName = names.get(written);
+            if (productName != null) {
+                productName.setId(id);
+            }
+        });
+        // The listed names now have ids
+        catalogCache.bump(CatalogCache.Table.PRODUCT_NAMES);
+    }
+}
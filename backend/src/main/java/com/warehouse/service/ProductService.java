@@ -1,64 +1,187 @@
 package com.warehouse.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.warehouse.config.CacheConfig;
+import com.warehouse.dto.CursorPage;
+import com.warehouse.dto.ProductSummaryDTO;
 import com.warehouse.entity.MaterialType;
 import com.warehouse.entity.Product;
 import com.warehouse.entity.ProductName;
-import com.warehouse.repository.ProductNameRepository;
+import com.warehouse.event.ProductDeletedEvent;
+import com.warehouse.event.ProductsSavedEvent;
+import com.warehouse.repository.FullTextSearch;
+import com.warehouse.repository.ProductBatchRepository;
 import com.warehouse.repository.ProductRepository;
 import com.warehouse.repository.SupplierRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ProductService {
     
     @Autowired
     private ProductRepository productRepository;
     
     @Autowired
-    private ProductNameRepository productNameRepository;
+    private ProductNameDictionary productNameDictionary;
     
     @Autowired
     private SupplierRepository supplierRepository;
     
+    @Autowired
+    private ProductBatchRepository productBatchRepository;
+    
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+    
+    @Autowired
+    private DatabaseWriter databaseWriter;
+    
+    @Autowired
+    private CatalogCache catalogCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
     // Get all products
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
     
+    // Get one page of products in id order
+    public Page<Product> getProducts(int page, int size) {
+        return productRepository.findAll(PageRequest.of(page, size, Sort.by("id")));
+    }
+    
+    // Get products by keyset in id order. Pass null for the first page and the
+    // returned nextCursor afterwards; no COUNT query is run.
+    public CursorPage<Product> getProductsAfter(String cursor, int size) {
+        long afterId = cursor == null || cursor.isEmpty() ? 0 : decodeCursor(cursor);
+        
+        // One extra row tells whether another page follows
+        List<Product> products = productRepository.findByIdGreaterThan(afterId,
+                PageRequest.of(0, size + 1, Sort.by("id")));
+        
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            nextCursor = encodeCursor(products.get(size - 1).getId());
+        }
+        return new CursorPage<>(products, nextCursor);
+    }
+    
+    // Stream all products in id order one row at a time. Each entity is detached
+    // once handed over, so memory stays flat however many products there are.
+    public void forEachProduct(Consumer<Product> action) {
+        try (Stream<Product> products = productRepository.streamAllOrderById()) {
+            products.forEach(product -> {
+                action.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+    
+    // Get the product list columns of all products
+    public List<ProductSummaryDTO> getProductSummaries() {
+        return productRepository.findAllSummaries();
+    }
+    
     // Get product by ID
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
     
-    // Save product
+    // Save product; writes run on the database writer thread, so no transaction is opened here
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
     public Product saveProduct(Product product) {
         // Calculate quantity if not provided
         if (product.getQuantity() == null) {
             product.calculateQuantity();
         }
         
-        // Save the product
-        Product savedProduct = productRepository.save(product);
-        
-        // Add product name to suggestions if not exists
-        if (!productNameRepository.existsByName(product.getProductName())) {
-            ProductName productName = new ProductName(product.getProductName());
-            productNameRepository.save(productName);
+        Long id = product.getId();
+        Product saved = databaseWriter.execute(() -> {
+            // A retried write starts from the caller's id again, not the one a
+            // rolled back insert assigned
+            product.setId(id);
+            
+            // Drop the old values from the autocomplete index when updating
+            if (product.getId() != null) {
+                productRepository.findById(product.getId()).ifPresent(productSuggestionIndex::remove);
+            }
+            
+            // Save the product
+            Product savedProduct = productRepository.save(product);
+            productSuggestionIndex.add(savedProduct);
+            
+            // Add product name to suggestions if not exists, after commit; written in the background
+            productNameDictionary.add(product.getProductName());
+            
+            eventPublisher.publishEvent(new ProductsSavedEvent(List.of(savedProduct)));
+            return savedProduct;
+        });
+        catalogCache.bump(CatalogCache.Table.PRODUCTS);
+        return saved;
+    }
+    
+    // Save multiple already validated products (for CSV upload) in one database transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
+    public List<Product> saveProducts(List<Product> products) {
+        Set<String> productNames = new LinkedHashSet<>();
+        for (Product product : products) {
+            if (product.getQuantity() == null) {
+                product.calculateQuantity();
+            }
+            productNames.add(product.getProductName());
         }
         
-        return savedProduct;
+        List<Product> saved = databaseWriter.execute(() -> {
+            List<Product> savedProducts = productBatchRepository.insertAll(products);
+            productNameDictionary.addAll(productNames);
+            productSuggestionIndex.addAll(savedProducts);
+            eventPublisher.publishEvent(new ProductsSavedEvent(savedProducts));
+            return savedProducts;
+        });
+        catalogCache.bump(CatalogCache.Table.PRODUCTS);
+        return saved;
     }
     
     // Delete product
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        databaseWriter.execute(() -> productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            productSuggestionIndex.remove(product);
+            eventPublisher.publishEvent(new ProductDeletedEvent(id));
+        }));
+        catalogCache.bump(CatalogCache.Table.PRODUCTS);
     }
     
     // Check if product code exists (disabled to allow duplicate codes)
@@ -66,12 +189,14 @@ public class ProductService {
         return false;
     }
     
-    // Get product by name (for autofill)
+    // Get product by name (for autofill); not-found results are cached as well
+    @Cacheable(CacheConfig.PRODUCTS_BY_NAME)
     public Optional<Product> findByProductName(String productName) {
         return productRepository.findTopByProductName(productName);
     }
 
-    // Get product by code (for autofill/validation)
+    // Get product by code (for autofill/validation); not-found results are cached as well
+    @Cacheable(CacheConfig.PRODUCTS_BY_CODE)
     public Optional<Product> findByProductCode(String productCode) {
         return productRepository.findByProductCode(productCode);
     }
@@ -81,7 +206,11 @@ public class ProductService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return getAllProducts();
         }
-        return productRepository.findBySearchTerm(searchTerm.trim());
+        // Terms shorter than a trigram cannot use the full-text index
+        if (!FullTextSearch.isSearchable(searchTerm)) {
+            return productRepository.findBySearchTerm(searchTerm.trim());
+        }
+        return productRepository.findByFullTextQuery(FullTextSearch.phrase(searchTerm));
     }
     
     // Filter by material type
@@ -89,42 +218,57 @@ public class ProductService {
         return productRepository.findByMaterialType(materialType);
     }
     
-    // Autocomplete suggestions
+    // Autocomplete suggestions, served from the in-memory index
     public List<String> getProductCodeSuggestions(String term) {
-        return productRepository.findDistinctProductCodes(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.PRODUCT_CODE, term);
     }
     
     public List<String> getProductNameSuggestions(String term) {
-        return productRepository.findDistinctProductNames(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.PRODUCT_NAME, term);
     }
     
     public List<String> getUnitSuggestions(String term) {
-        return productRepository.findDistinctUnits(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.UNIT, term);
     }
     
     public List<String> getBatchNoSuggestions(String term) {
-        return productRepository.findDistinctBatchNos(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.BATCH_NO, term);
     }
     
     public List<String> getGrnNoSuggestions(String term) {
-        return productRepository.findDistinctGrnNos(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.GRN_NO, term);
     }
     
     public List<String> getSalesInvoiceNoSuggestions(String term) {
-        return productRepository.findDistinctSalesInvoiceNos(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.SALES_INVOICE_NO, term);
     }
     
     public List<String> getSourceSuggestions(String term) {
-        return productRepository.findDistinctSources(term);
+        return productSuggestionIndex.suggest(ProductSuggestionIndex.Field.SOURCE, term);
     }
     
     // Get all product names for dropdown
     public List<ProductName> getAllProductNames() {
-        return productNameRepository.findAll();
+        return productNameDictionary.getAll();
     }
     
     // Get all suppliers
     public List<com.warehouse.entity.Supplier> getAllSuppliers() {
         return supplierRepository.findAll();
     }
+    
+    // The cursor is the id of the last product returned, base64 encoded so clients
+    // treat it as opaque
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
 }
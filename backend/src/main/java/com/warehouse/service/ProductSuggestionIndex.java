@@ -0,0 +1,156 @@
+package com.warehouse.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.warehouse.entity.Product;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// In-memory prefix index behind the product autocomplete endpoints. Each field
+// keeps its distinct values in a sorted map keyed by the lower-cased value, so
+// a case-insensitive prefix lookup is a range scan that stops after the limit.
+// Every key carries a count of the products using the value, so deleting one
+// product only drops a suggestion once no other product has it.
+@Component
+public class ProductSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    // Separates the lower-cased sort key from the original value; sorts before any real character
+    private static final char SEPARATOR = '\0';
+
+    public enum Field {
+        PRODUCT_CODE(Product::getProductCode),
+        PRODUCT_NAME(Product::getProductName),
+        UNIT(Product::getUnit),
+        BATCH_NO(Product::getBatchNo),
+        GRN_NO(Product::getGrnNo),
+        SALES_INVOICE_NO(Product::getSalesInvoiceNo),
+        SOURCE(Product::getSource);
+
+        private final Function<Product, String> getter;
+
+        Field(Function<Product, String> getter) {
+            this.getter = getter;
+        }
+    }
+
+    // Injected so the index is built only after migrations and Hibernate have started
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.autocomplete.limit:20}")
+    private int limit;
+
+    private final Map<Field, ConcurrentSkipListMap<String, Integer>> fields = new EnumMap<>(Field.class);
+
+    public ProductSuggestionIndex() {
+        for (Field field : Field.values()) {
+            fields.put(field, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    @PostConstruct
+    public void build() {
+        long start = System.nanoTime();
+        int[] rows = {0};
+        jdbcTemplate.query("SELECT product_code, product_name, unit, batch_no, grn_no, sales_invoice_no, source "
+                + "FROM products", rs -> {
+            for (Field field : Field.values()) {
+                increment(field, rs.getString(field.ordinal() + 1));
+            }
+            rows[0]++;
+        });
+        logger.info("Built autocomplete index from {} products in {} ms", rows[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Up to the configured number of distinct values starting with term, ignoring case, in alphabetical order
+    public List<String> suggest(Field field, String term) {
+        String prefix = term == null ? "" : term.toLowerCase(Locale.ROOT);
+        ConcurrentNavigableMap<String, Integer> range = prefix.isEmpty()
+                ? fields.get(field)
+                : fields.get(field).subMap(prefix, prefix + Character.MAX_VALUE);
+
+        List<String> result = new ArrayList<>(Math.min(limit, 32));
+        for (String key : range.keySet()) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(key.substring(key.indexOf(SEPARATOR) + 1));
+        }
+        return result;
+    }
+
+    // Record a saved product; applied once the surrounding transaction commits
+    public void add(Product product) {
+        String[] values = valuesOf(product);
+        AfterCommit.run(() -> apply(values, true));
+    }
+
+    public void addAll(List<Product> products) {
+        List<String[]> values = new ArrayList<>(products.size());
+        for (Product product : products) {
+            values.add(valuesOf(product));
+        }
+        AfterCommit.run(() -> values.forEach(v -> apply(v, true)));
+    }
+
+    // Forget a deleted product. Values are read now, before the entity can change.
+    public void remove(Product product) {
+        String[] values = valuesOf(product);
+        AfterCommit.run(() -> apply(values, false));
+    }
+
+    private static String[] valuesOf(Product product) {
+        String[] values = new String[Field.values().length];
+        for (Field field : Field.values()) {
+            values[field.ordinal()] = field.getter.apply(product);
+        }
+        return values;
+    }
+
+    private void apply(String[] values, boolean add) {
+        for (Field field : Field.values()) {
+            if (add) {
+                increment(field, values[field.ordinal()]);
+            } else {
+                decrement(field, values[field.ordinal()]);
+            }
+        }
+    }
+
+    private void increment(Field field, String value) {
+        if (value != null && !value.isEmpty()) {
+            fields.get(field).merge(key(value), 1, Integer::sum);
+        }
+    }
+
+    private void decrement(Field field, String value) {
+        if (value != null && !value.isEmpty()) {
+            fields.get(field).computeIfPresent(key(value), (k, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT) + SEPARATOR + value;
+    }
+}
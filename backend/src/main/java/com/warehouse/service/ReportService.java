@@ -0,0 +1,61 @@
+package com.warehouse.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.warehouse.dto.MovementTotalDTO;
+import com.warehouse.repository.MovementRollupRepository;
+
+@Service
+@Transactional(readOnly = true)
+public class ReportService {
+
+    @Autowired
+    private MovementRollupRepository movementRollupRepository;
+
+    // IN/OUT totals per day or month, optionally grouped by "materialType",
+    // "product" or "party" ("total" for no grouping). Dates are inclusive and
+    // may be null; key limits a grouped report to one material type, product
+    // code or party. Throws IllegalArgumentException for unknown parameters.
+    public List<MovementTotalDTO> getMovements(String groupBy, String period, LocalDate startDate,
+                                               LocalDate endDate, String key) {
+        boolean monthly;
+        if ("day".equalsIgnoreCase(period)) {
+            monthly = false;
+        } else if ("month".equalsIgnoreCase(period)) {
+            monthly = true;
+        } else {
+            throw new IllegalArgumentException("period must be day or month");
+        }
+
+        String dimension;
+        if ("materialType".equalsIgnoreCase(groupBy)) {
+            dimension = "material_type";
+        } else if ("product".equalsIgnoreCase(groupBy)) {
+            dimension = "product";
+        } else if ("party".equalsIgnoreCase(groupBy)) {
+            dimension = "party";
+        } else if ("total".equalsIgnoreCase(groupBy)) {
+            dimension = null;
+        } else {
+            throw new IllegalArgumentException("groupBy must be total, materialType, product or party");
+        }
+
+        // Buckets are ISO dates and months, so they compare correctly as strings
+        String fromBucket = startDate == null ? null
+                : monthly ? YearMonth.from(startDate).toString() : startDate.toString();
+        String toBucket = endDate == null ? null
+                : monthly ? YearMonth.from(endDate).toString() : endDate.toString();
+        String periodName = monthly ? "month" : "day";
+
+        if (dimension == null) {
+            return movementRollupRepository.findOverallTotals(periodName, fromBucket, toBucket);
+        }
+        return movementRollupRepository.findTotals(dimension, periodName, fromBucket, toBucket, key);
+    }
+}
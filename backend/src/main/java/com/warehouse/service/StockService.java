@@ -0,0 +1,39 @@
+package com.warehouse.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.warehouse.dto.StockBalanceDTO;
+import com.warehouse.repository.StockBalanceRepository;
+
+@Service
+@Transactional(readOnly = true)
+public class StockService {
+
+    @Autowired
+    private StockBalanceRepository stockBalanceRepository;
+
+    @Autowired
+    private DatabaseWriter databaseWriter;
+
+    // Get all stock balances
+    public List<StockBalanceDTO> getAllBalances() {
+        return stockBalanceRepository.findAll();
+    }
+
+    // Get the balances of one product code, one per batch and unit
+    public List<StockBalanceDTO> getBalances(String productCode) {
+        return stockBalanceRepository.findByProductCode(productCode);
+    }
+
+    // Recompute all balances from the transactions, in case they were changed
+    // outside the application with the triggers disabled
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildBalances() {
+        return databaseWriter.execute(stockBalanceRepository::rebuild);
+    }
+}
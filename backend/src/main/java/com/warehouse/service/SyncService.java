@@ -0,0 +1,232 @@
+package com.warehouse.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.warehouse.config.CacheConfig;
+import com.warehouse.dto.SyncBatchDTO;
+import com.warehouse.dto.SyncChangeDTO;
+import com.warehouse.dto.SyncResultDTO;
+import com.warehouse.entity.Product;
+import com.warehouse.entity.Transaction;
+import com.warehouse.event.ProductDeletedEvent;
+import com.warehouse.event.ProductsSavedEvent;
+import com.warehouse.event.TransactionsDeletedEvent;
+import com.warehouse.event.TransactionsSavedEvent;
+import com.warehouse.repository.SyncRepository;
+import com.warehouse.repository.SyncRepository.Table;
+
+// Delta sync between sites that each run their own database. A site reads
+// another site's changes with getChanges, from the high-watermark it has
+// stored for that site, and applies them with apply. Each batch is applied in
+// one transaction together with the new watermark, so an interrupted sync
+// resumes where the last applied batch ended. Applying a batch again changes
+// nothing: a change is skipped unless it is newer than the row's latest
+// change here (modified time, then origin site id).
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    @Autowired
+    private SyncRepository syncRepository;
+
+    @Autowired
+    private DatabaseWriter databaseWriter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+
+    @Autowired
+    private ProductNameDictionary productNameDictionary;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private volatile String siteId;
+
+    public String getSiteId() {
+        if (siteId == null) {
+            siteId = syncRepository.findSiteId();
+        }
+        return siteId;
+    }
+
+    // Up to limit changes after since, read from one snapshot
+    public SyncBatchDTO getChanges(long since, int limit) {
+        SyncBatchDTO batch = new SyncBatchDTO();
+        batch.setSiteId(getSiteId());
+        batch.setSince(since);
+        batch.setHighWatermark(syncRepository.findHighWatermark());
+        List<SyncChangeDTO> changes = syncRepository.findChanges(since, limit);
+        batch.setChanges(changes);
+        batch.setUntil(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq());
+        batch.setHasMore(batch.getUntil() < batch.getHighWatermark());
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        for (Table table : Table.values()) {
+            columns.put(table.getTableName(), table.getColumns());
+        }
+        batch.setColumns(columns);
+        return batch;
+    }
+
+    // This site's id and high-watermark, and how far each other site has been applied
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("siteId", getSiteId());
+        status.put("highWatermark", syncRepository.findHighWatermark());
+        status.put("peers", syncRepository.findPeers());
+        return status;
+    }
+
+    // Applies a batch read from another site. Throws IllegalArgumentException
+    // for a malformed batch, and IllegalStateException when the batch starts
+    // after this site's watermark for its source, which would skip changes.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {CacheConfig.PRODUCTS_BY_CODE, CacheConfig.PRODUCTS_BY_NAME}, allEntries = true)
+    public SyncResultDTO apply(SyncBatchDTO batch) {
+        String source = batch.getSiteId();
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("siteId is required");
+        }
+        List<SyncChangeDTO> changes = batch.getChanges() != null ? batch.getChanges() : List.of();
+        Map<Table, List<String>> columns = checkColumns(batch, changes);
+
+        SyncResultDTO result = databaseWriter.execute(() -> {
+            if (source.equals(getSiteId())) {
+                throw new IllegalArgumentException("The batch was read from this site");
+            }
+            long watermark = syncRepository.findPeerWatermark(source);
+            if (batch.getSince() > watermark) {
+                throw new IllegalStateException("Changes from site " + source + " are applied up to " + watermark
+                        + "; read them again with since=" + watermark);
+            }
+            int applied = 0;
+            List<Long> deletedTransactions = new ArrayList<>();
+            Map<Long, Transaction> savedTransactions = new LinkedHashMap<>();
+            List<Product> savedProducts = new ArrayList<>();
+            for (SyncChangeDTO change : changes) {
+                Table table = Table.of(change.getTable());
+                SyncChangeDTO local = syncRepository.findChange(table, change.getUid());
+                if (local != null && !isNewer(change, local)) {
+                    continue;
+                }
+                applyChange(table, columns.get(table), change, deletedTransactions, savedTransactions, savedProducts);
+                syncRepository.recordChange(table, change.getUid(), change.isDeleted(),
+                        change.getModifiedAt(), change.getOrigin());
+                applied++;
+            }
+            long newWatermark = Math.max(watermark, batch.getUntil());
+            syncRepository.savePeerWatermark(source, newWatermark);
+
+            // An updated transaction is published as deleted and then saved again
+            if (!deletedTransactions.isEmpty()) {
+                eventPublisher.publishEvent(new TransactionsDeletedEvent(deletedTransactions));
+            }
+            if (!savedTransactions.isEmpty()) {
+                eventPublisher.publishEvent(new TransactionsSavedEvent(new ArrayList<>(savedTransactions.values())));
+            }
+            if (!savedProducts.isEmpty()) {
+                productSuggestionIndex.addAll(savedProducts);
+                savedProducts.forEach(product -> productNameDictionary.add(product.getProductName()));
+                eventPublisher.publishEvent(new ProductsSavedEvent(savedProducts));
+            }
+            return new SyncResultDTO(source, applied, changes.size() - applied, newWatermark);
+        });
+        if (changes.stream().anyMatch(change -> Table.PRODUCTS.getTableName().equals(change.getTable()))) {
+            catalogCache.bump(CatalogCache.Table.PRODUCTS);
+        }
+        return result;
+    }
+
+    // Writer thread only. Deletes, updates or inserts the row with the change's
+    // uid. Transaction updates reach the table and the trigger-maintained
+    // balances and rollups, like any other update of the ledger, and are
+    // collected as a delete of the old row plus a save of the new one for the
+    // listeners that keep copies in memory. savedTransactions is keyed by id so
+    // a row changed twice in one batch is saved once, with its last values.
+    private void applyChange(Table table, List<String> columns, SyncChangeDTO change, List<Long> deletedTransactions,
+                             Map<Long, Transaction> savedTransactions, List<Product> savedProducts) {
+        Long id = syncRepository.findId(table, change.getUid());
+        if (table == Table.PRODUCTS && id != null) {
+            // Drop the old values from the autocomplete index
+            productSuggestionIndex.remove(syncRepository.findProduct(id));
+        }
+        if (change.isDeleted()) {
+            if (id != null) {
+                syncRepository.delete(table, id);
+                if (table == Table.PRODUCTS) {
+                    eventPublisher.publishEvent(new ProductDeletedEvent(id));
+                } else {
+                    deletedTransactions.add(id);
+                    savedTransactions.remove(id);
+                }
+            }
+            return;
+        }
+        if (id != null) {
+            syncRepository.update(table, id, columns, change.getValues());
+            if (table == Table.TRANSACTIONS) {
+                deletedTransactions.add(id);
+            }
+        } else {
+            id = syncRepository.insert(table, columns, change.getValues(), change.getUid());
+        }
+        if (table == Table.TRANSACTIONS) {
+            savedTransactions.put(id, syncRepository.findTransaction(id));
+        }
+        if (table == Table.PRODUCTS) {
+            savedProducts.add(syncRepository.findProduct(id));
+        }
+    }
+
+    // Later modification wins; the origin site id decides between changes made
+    // in the same millisecond, so every site picks the same one
+    private static boolean isNewer(SyncChangeDTO change, SyncChangeDTO local) {
+        int byTime = Long.compare(change.getModifiedAt(), local.getModifiedAt());
+        return byTime != 0 ? byTime > 0 : change.getOrigin().compareTo(local.getOrigin()) > 0;
+    }
+
+    // The batch's column list of every table it has changes for, checked
+    // against the synced columns, and the shape of every change
+    private static Map<Table, List<String>> checkColumns(SyncBatchDTO batch, List<SyncChangeDTO> changes) {
+        Map<Table, List<String>> columns = new HashMap<>();
+        for (SyncChangeDTO change : changes) {
+            Table table = Table.of(change.getTable());
+            List<String> tableColumns = columns.computeIfAbsent(table, t -> {
+                List<String> sent = batch.getColumns() != null ? batch.getColumns().get(t.getTableName()) : null;
+                if (sent == null || sent.isEmpty()) {
+                    throw new IllegalArgumentException("No columns given for " + t.getTableName());
+                }
+                for (String column : sent) {
+                    if (!t.getColumns().contains(column)) {
+                        throw new IllegalArgumentException("Unknown column " + t.getTableName() + "." + column);
+                    }
+                }
+                return sent;
+            });
+            if (change.getUid() == null || change.getUid().isBlank()
+                    || change.getModifiedAt() == null || change.getOrigin() == null) {
+                throw new IllegalArgumentException("Change " + change.getSeq() + " needs uid, modifiedAt and origin");
+            }
+            if (!change.isDeleted() && (change.getValues() == null || change.getValues().size() != tableColumns.size())) {
+                throw new IllegalArgumentException("Change " + change.getSeq() + " has "
+                        + (change.getValues() == null ? 0 : change.getValues().size()) + " values for "
+                        + tableColumns.size() + " columns");
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,328 @@
+package com.warehouse.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.warehouse.entity.Transaction;
+import com.warehouse.event.TransactionsDeletedEvent;
+import com.warehouse.event.TransactionsSavedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Column-oriented copy of the transactions table for analytics scans. Each
+// column is a primitive array: epoch millis as longs, quantities as longs in
+// hundredths, and the local day and the text columns as int codes into
+// per-column dictionaries. Loaded once at startup and appended to after every
+// committed insert. A committed delete marks its row in a tombstone bitmap; an
+// update arrives as a delete of the old row and an append of the new one. Dead
+// rows stay in the arrays until the next load. Readers take an immutable
+// Snapshot and never lock.
+@Component
+public class TransactionColumnStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionColumnStore.class);
+
+    // Quantities are stored multiplied by this, matching the 2 decimals of transactions.quantity
+    public static final int QUANTITY_SCALE = 100;
+
+    public static final byte TYPE_IN = 0;
+    public static final byte TYPE_OUT = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Append-only mapping of column values to dense int codes
+    public static final class Dictionary {
+
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private String[] values = new String[16];
+        private int size;
+
+        // Code of the value, or -1 if it never occurred
+        public int code(String value) {
+            return codes.getOrDefault(value == null ? "" : value, -1);
+        }
+
+        private int encode(String value) {
+            String key = value == null ? "" : value;
+            Integer code = codes.get(key);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = key;
+            codes.put(key, size);
+            return size++;
+        }
+    }
+
+    // Consistent view of the first size rows. The arrays may be longer and are
+    // written past size by later appends, which readers never look at. Scans
+    // skip the rows isDeleted reports.
+    public static final class Snapshot {
+        public final int size;
+        public final long[] id;
+        public final long[] createdAt;
+        public final int[] day;
+        public final long[] quantity;
+        public final byte[] type;
+        public final int[] productCode;
+        public final int[] party;
+        public final int[] unit;
+        public final int[] materialType;
+        public final String[] productCodes;
+        public final String[] parties;
+        public final String[] units;
+        public final String[] materialTypes;
+        // day codes index days and monthOfDay, whose codes index months
+        public final LocalDate[] days;
+        public final int[] monthOfDay;
+        public final YearMonth[] months;
+        public final int dayCount;
+        public final int monthCount;
+        private final long[] deleted;
+
+        private Snapshot(TransactionColumnStore store) {
+            this.size = store.size;
+            this.id = store.id;
+            this.createdAt = store.createdAt;
+            this.day = store.day;
+            this.quantity = store.quantity;
+            this.type = store.type;
+            this.productCode = store.productCode;
+            this.party = store.party;
+            this.unit = store.unit;
+            this.materialType = store.materialType;
+            this.productCodes = store.productCodes.values;
+            this.parties = store.parties.values;
+            this.units = store.units.values;
+            this.materialTypes = store.materialTypes.values;
+            this.days = store.days;
+            this.monthOfDay = store.monthOfDay;
+            this.months = store.months;
+            this.dayCount = store.dayCount;
+            this.monthCount = store.monthCount;
+            this.deleted = store.deleted;
+        }
+
+        public boolean isDeleted(int row) {
+            int word = row >>> 6;
+            return word < deleted.length && (deleted[word] & (1L << row)) != 0;
+        }
+    }
+
+    // Injected so the store is loaded only after migrations and Hibernate have started
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Dictionary productCodes = new Dictionary();
+    private final Dictionary parties = new Dictionary();
+    private final Dictionary units = new Dictionary();
+    private final Dictionary materialTypes = new Dictionary();
+
+    // Written only by append and remove, under the store's lock
+    private int size;
+    private long[] id = new long[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private int[] day = new int[INITIAL_CAPACITY];
+    private long[] quantity = new long[INITIAL_CAPACITY];
+    private byte[] type = new byte[INITIAL_CAPACITY];
+    private int[] productCode = new int[INITIAL_CAPACITY];
+    private int[] party = new int[INITIAL_CAPACITY];
+    private int[] unit = new int[INITIAL_CAPACITY];
+    private int[] materialType = new int[INITIAL_CAPACITY];
+    // Distinct days in order of first occurrence, with the code of each one's
+    // month. Only days that occur get a code, so a row with a mistyped year
+    // adds one group rather than every day in between.
+    private final Map<Long, Integer> dayCodes = new HashMap<>();
+    private final Map<YearMonth, Integer> monthCodes = new HashMap<>();
+    private LocalDate[] days = new LocalDate[64];
+    private int[] monthOfDay = new int[64];
+    private YearMonth[] months = new YearMonth[16];
+    private int dayCount;
+    private int monthCount;
+    // One bit per row, set once the row is deleted. Replaced, never written in
+    // place, as published snapshots share it. Rows past its end are live.
+    private long[] deleted = new long[0];
+    private int lastDayCode;
+    private long lastDayStart = Long.MAX_VALUE;
+    private long lastDayEnd = Long.MIN_VALUE;
+
+    private volatile Snapshot snapshot = new Snapshot(this);
+
+    @PostConstruct
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            jdbcTemplate.query("SELECT id, created_at, quantity, type, product_code, party, unit, material_type "
+                    + "FROM transactions ORDER BY id", rs -> {
+                appendRow(rs.getLong(1), rs.getLong(2), Math.round(rs.getDouble(3) * QUANTITY_SCALE),
+                        rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8));
+            });
+            publish();
+        }
+        logger.info("Loaded {} transactions into the analytics column store in {} ms",
+                size, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public Dictionary productCodes() {
+        return productCodes;
+    }
+
+    public Dictionary parties() {
+        return parties;
+    }
+
+    public Dictionary units() {
+        return units;
+    }
+
+    public Dictionary materialTypes() {
+        return materialTypes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsSaved(TransactionsSavedEvent event) {
+        append(event.getTransactions());
+    }
+
+    public synchronized void append(List<Transaction> transactions) {
+        for (Transaction t : transactions) {
+            LocalDateTime created = t.getCreatedAt() != null ? t.getCreatedAt() : LocalDateTime.now();
+            long millis = created.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            long scaled = t.getQuantity() != null
+                    ? t.getQuantity().setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValue()
+                    : 0;
+            appendRow(t.getId(), millis, scaled, t.getType(), t.getProductCode(), t.getParty(), t.getUnit(),
+                    t.getMaterialType());
+        }
+        publish();
+    }
+
+    // Runs before the TransactionsSavedEvent of the same write, so an updated
+    // row is marked dead before its new values are appended
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsDeleted(TransactionsDeletedEvent event) {
+        remove(event.getIds());
+    }
+
+    // Marks the live rows with these ids as deleted. Recent rows are the ones
+    // usually changed, so the search runs from the end and stops once every
+    // id is found. An id can occur twice, as SQLite reuses the largest id after
+    // its row is deleted, but only once among the live rows.
+    public synchronized void remove(Collection<Long> ids) {
+        Set<Long> remaining = new HashSet<>(ids);
+        long[] marked = Arrays.copyOf(deleted, (size + 63) >>> 6);
+        int removed = 0;
+        for (int row = size - 1; row >= 0 && !remaining.isEmpty(); row--) {
+            long bit = 1L << row;
+            if ((marked[row >>> 6] & bit) == 0 && remaining.remove(id[row])) {
+                marked[row >>> 6] |= bit;
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            deleted = marked;
+            publish();
+        }
+    }
+
+    // Quantity in hundredths back to the entity's BigDecimal scale
+    public static BigDecimal toQuantity(long scaled) {
+        return BigDecimal.valueOf(scaled, 2);
+    }
+
+    private void appendRow(long rowId, long millis, long scaledQuantity, String typeValue, String productCodeValue,
+                           String partyValue, String unitValue, String materialTypeValue) {
+        if (size == createdAt.length) {
+            grow();
+        }
+        id[size] = rowId;
+        createdAt[size] = millis;
+        day[size] = dayCode(millis);
+        quantity[size] = scaledQuantity;
+        type[size] = "OUT".equals(typeValue) ? TYPE_OUT : TYPE_IN;
+        productCode[size] = productCodes.encode(productCodeValue);
+        party[size] = parties.encode(partyValue);
+        unit[size] = units.encode(unitValue);
+        materialType[size] = materialTypes.encode(materialTypeValue);
+        size++;
+    }
+
+    // Code of the timestamp's local day. Rows tend to arrive grouped by date, so
+    // the bounds of the last day seen are kept to skip most time zone lookups.
+    private int dayCode(long millis) {
+        if (millis < lastDayStart || millis >= lastDayEnd) {
+            ZoneId zone = ZoneId.systemDefault();
+            LocalDate date = Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+            lastDayCode = dayCodes.computeIfAbsent(date.toEpochDay(), epochDay -> addDay(date));
+            lastDayStart = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            lastDayEnd = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return lastDayCode;
+    }
+
+    private int addDay(LocalDate date) {
+        if (dayCount == days.length) {
+            days = Arrays.copyOf(days, dayCount * 2);
+            monthOfDay = Arrays.copyOf(monthOfDay, dayCount * 2);
+        }
+        days[dayCount] = date;
+        monthOfDay[dayCount] = monthCodes.computeIfAbsent(YearMonth.from(date), this::addMonth);
+        return dayCount++;
+    }
+
+    private int addMonth(YearMonth month) {
+        if (monthCount == months.length) {
+            months = Arrays.copyOf(months, monthCount * 2);
+        }
+        months[monthCount] = month;
+        return monthCount++;
+    }
+
+    private void grow() {
+        int capacity = createdAt.length + (createdAt.length >> 1);
+        id = Arrays.copyOf(id, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        day = Arrays.copyOf(day, capacity);
+        quantity = Arrays.copyOf(quantity, capacity);
+        type = Arrays.copyOf(type, capacity);
+        productCode = Arrays.copyOf(productCode, capacity);
+        party = Arrays.copyOf(party, capacity);
+        unit = Arrays.copyOf(unit, capacity);
+        materialType = Arrays.copyOf(materialType, capacity);
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(this);
+    }
+}
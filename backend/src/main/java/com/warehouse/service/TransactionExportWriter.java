@@ -0,0 +1,125 @@
+package com.warehouse.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+import com.opencsv.CSVWriter;
+import com.warehouse.dto.TransactionDTO;
+
+// Writes exported transactions row by row as they arrive from the database.
+// Column names match what CsvTransactionReader accepts, so an export can be
+// imported again as is.
+@Component
+public class TransactionExportWriter {
+
+    private static final String[] HEADERS = {
+            "Barcode", "Product Code", "Product Name", "Quantity", "Unit", "Batch No",
+            "GRN No", "Material Type", "Type", "Party", "Date"
+    };
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Rows SXSSF keeps in memory before flushing them to its temp file
+    private static final int EXCEL_WINDOW = 100;
+
+    // Receives a row callback and feeds every exported transaction to it
+    public interface RowSource {
+        void forEach(Consumer<TransactionDTO> row);
+    }
+
+    public void writeCsv(RowSource rows, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM so Excel opens the file as UTF-8
+        writer.write('\uFEFF');
+        CSVWriter csv = new CSVWriter(writer);
+        csv.writeNext(HEADERS, false);
+        // Get the header to the client before the query has produced anything
+        csv.flush();
+
+        String[] line = new String[HEADERS.length];
+        rows.forEach(t -> {
+            line[0] = t.getBarcode();
+            line[1] = t.getProductCode();
+            line[2] = t.getProductName();
+            line[3] = t.getQuantity() != null ? t.getQuantity().toPlainString() : null;
+            line[4] = t.getUnit();
+            line[5] = t.getBatchNo();
+            line[6] = t.getGrnNo();
+            line[7] = t.getMaterialType();
+            line[8] = t.getType();
+            line[9] = t.getParty();
+            line[10] = t.getCreatedAt() != null ? DATE_FORMAT.format(t.getCreatedAt()) : null;
+            csv.writeNext(line, false);
+        });
+        csv.flush();
+    }
+
+    public void writeExcel(RowSource rows, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_WINDOW);
+        try {
+            workbook.setCompressTempFiles(true);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+
+            int maxRows = SpreadsheetVersion.EXCEL2007.getMaxRows();
+            SXSSFSheet[] sheet = {newSheet(workbook, 1)};
+            int[] rowNum = {1};
+            rows.forEach(t -> {
+                // Continue on a new sheet once one is full
+                if (rowNum[0] >= maxRows) {
+                    sheet[0] = newSheet(workbook, workbook.getNumberOfSheets() + 1);
+                    rowNum[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowNum[0]++);
+                setText(row, 0, t.getBarcode());
+                setText(row, 1, t.getProductCode());
+                setText(row, 2, t.getProductName());
+                if (t.getQuantity() != null) {
+                    row.createCell(3).setCellValue(t.getQuantity().doubleValue());
+                }
+                setText(row, 4, t.getUnit());
+                setText(row, 5, t.getBatchNo());
+                setText(row, 6, t.getGrnNo());
+                setText(row, 7, t.getMaterialType());
+                setText(row, 8, t.getType());
+                setText(row, 9, t.getParty());
+                if (t.getCreatedAt() != null) {
+                    row.createCell(10).setCellValue(t.getCreatedAt());
+                    row.getCell(10).setCellStyle(dateStyle);
+                }
+            });
+            workbook.write(out);
+        } finally {
+            workbook.close();
+            // Removes the temp files SXSSF spilled rows into
+            workbook.dispose();
+        }
+    }
+
+    private static SXSSFSheet newSheet(SXSSFWorkbook workbook, int number) {
+        SXSSFSheet sheet = workbook.createSheet(number == 1 ? "Transactions" : "Transactions " + number);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        return sheet;
+    }
+
+    private static void setText(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+}
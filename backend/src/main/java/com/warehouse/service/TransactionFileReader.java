@@ -0,0 +1,17 @@
+package com.warehouse.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.warehouse.dto.TransactionDTO;
+
+// Source stage of the upload pipeline: streams a file of transactions
+public interface TransactionFileReader {
+
+    // Reads every data row and hands valid ones to the sink in chunks of at
+    // most chunkSize, recording progress on the job. Returns the number of
+    // valid rows emitted.
+    int read(File file, int chunkSize, UploadJob job, Consumer<List<TransactionDTO>> sink) throws IOException;
+}
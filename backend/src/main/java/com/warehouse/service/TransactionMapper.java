@@ -0,0 +1,72 @@
+package com.warehouse.service;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.warehouse.dto.TransactionDTO;
+import com.warehouse.entity.Transaction;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+// Conversion between Transaction and TransactionDTO, plus the entity checks
+// Hibernate would run on persist. Kept outside TransactionService so upload
+// workers can map rows without opening a database transaction per call.
+@Component
+public class TransactionMapper {
+
+    @Autowired
+    private Validator validator;
+
+    // Convert Entity to DTO
+    public TransactionDTO toDTO(Transaction transaction) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setId(transaction.getId());
+        dto.setBarcode(transaction.getBarcode());
+        dto.setProductCode(transaction.getProductCode());
+        dto.setProductName(transaction.getProductName());
+        dto.setQuantity(transaction.getQuantity());
+        dto.setUnit(transaction.getUnit());
+        dto.setBatchNo(transaction.getBatchNo());
+        dto.setGrnNo(transaction.getGrnNo());
+        dto.setMaterialType(transaction.getMaterialType());
+        dto.setType(transaction.getType());
+        dto.setParty(transaction.getParty());
+        dto.setCreatedAt(transaction.getCreatedAt());
+        return dto;
+    }
+
+    // Convert DTO to Entity
+    public Transaction toEntity(TransactionDTO dto) {
+        Transaction transaction = new Transaction();
+        transaction.setId(dto.getId());
+        transaction.setBarcode(dto.getBarcode());
+        transaction.setProductCode(dto.getProductCode());
+        transaction.setProductName(dto.getProductName());
+        transaction.setQuantity(dto.getQuantity());
+        transaction.setUnit(dto.getUnit());
+        transaction.setBatchNo(dto.getBatchNo());
+        transaction.setGrnNo(dto.getGrnNo());
+        transaction.setMaterialType(dto.getMaterialType());
+        transaction.setType(dto.getType());
+        transaction.setParty(dto.getParty());
+        if (dto.getCreatedAt() != null) {
+            transaction.setCreatedAt(dto.getCreatedAt());
+        }
+        return transaction;
+    }
+
+    public boolean isValid(Transaction transaction) {
+        return validator.validate(transaction).isEmpty();
+    }
+
+    public void validate(Transaction transaction) {
+        Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+}
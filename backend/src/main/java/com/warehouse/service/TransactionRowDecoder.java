@@ -0,0 +1,209 @@
+package com.warehouse.service;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import com.warehouse.dto.TransactionDTO;
+
+// Turns one spreadsheet row into a TransactionDTO. The row buffer is reused
+// between rows, dates are scanned by hand instead of with regexes, and the
+// low-cardinality columns (unit, material type, type) are interned so a
+// chunk of rows shares one String per distinct value.
+// Not thread-safe: use one decoder per reader.
+public class TransactionRowDecoder {
+
+    public static final int COLUMN_COUNT = 11;
+
+    public static final int BARCODE = 0;
+    public static final int PRODUCT_CODE = 1;
+    public static final int PRODUCT_NAME = 2;
+    public static final int QUANTITY = 3;
+    public static final int UNIT = 4;
+    public static final int BATCH_NO = 5;
+    public static final int GRN_NO = 6;
+    public static final int MATERIAL_TYPE = 7;
+    public static final int TYPE = 8;
+    public static final int PARTY = 9;
+    public static final int DATE = 10;
+
+    private static final byte KIND_BLANK = 0;
+    private static final byte KIND_STRING = 1;
+    private static final byte KIND_NUMERIC = 2;
+    private static final byte KIND_DATE = 3;
+    private static final byte KIND_BOOLEAN = 4;
+
+    // Caps the intern pool in case a "low-cardinality" column turns out not to be
+    private static final int MAX_INTERNED = 4096;
+
+    private final byte[] kinds = new byte[COLUMN_COUNT];
+    private final String[] texts = new String[COLUMN_COUNT];
+    private final double[] numbers = new double[COLUMN_COUNT];
+
+    private final Map<String, String> interned = new HashMap<>();
+
+    public static boolean isInterned(int column) {
+        return column == UNIT || column == MATERIAL_TYPE || column == TYPE;
+    }
+
+    public void reset() {
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            kinds[i] = KIND_BLANK;
+            texts[i] = null;
+        }
+    }
+
+    public void setString(int column, String value) {
+        texts[column] = value;
+        kinds[column] = KIND_STRING;
+    }
+
+    public void setNumber(int column, double value, boolean dateFormatted) {
+        numbers[column] = value;
+        kinds[column] = dateFormatted && DateUtil.isValidExcelDate(value) ? KIND_DATE : KIND_NUMERIC;
+    }
+
+    public void setBoolean(int column, boolean value) {
+        texts[column] = value ? "true" : "false";
+        kinds[column] = KIND_BOOLEAN;
+    }
+
+    // Returns null when the row has no usable quantity or misses a required field
+    public TransactionDTO decode() {
+        BigDecimal quantity;
+        if (kinds[QUANTITY] == KIND_NUMERIC || kinds[QUANTITY] == KIND_DATE) {
+            quantity = BigDecimal.valueOf(numbers[QUANTITY]);
+        } else if (kinds[QUANTITY] == KIND_STRING) {
+            try {
+                quantity = new BigDecimal(texts[QUANTITY]);
+            } catch (NumberFormatException e) {
+                // Skip this row if quantity is not a valid number
+                return null;
+            }
+        } else {
+            return null; // Skip row if quantity is missing
+        }
+
+        String productCode = getString(PRODUCT_CODE);
+        String productName = getString(PRODUCT_NAME);
+        String type = getString(TYPE);
+
+        // Validate required fields
+        if (productCode.isEmpty() || productName.isEmpty() || type.isEmpty()) {
+            return null;
+        }
+
+        TransactionDTO transaction = new TransactionDTO();
+        transaction.setBarcode(getString(BARCODE));
+        transaction.setProductCode(productCode);
+        transaction.setProductName(productName);
+        transaction.setQuantity(quantity);
+        transaction.setUnit(getString(UNIT));
+        transaction.setBatchNo(getString(BATCH_NO));
+        transaction.setGrnNo(getString(GRN_NO));
+        transaction.setMaterialType(getString(MATERIAL_TYPE));
+        transaction.setType(type);
+        transaction.setParty(getString(PARTY));
+
+        // Fall back to the current date when the date cell is missing or unreadable
+        LocalDateTime createdAt = getDate(DATE);
+        transaction.setCreatedAt(createdAt != null ? createdAt : LocalDateTime.now());
+        return transaction;
+    }
+
+    private String getString(int column) {
+        switch (kinds[column]) {
+            case KIND_STRING:
+                // trim() returns the same instance when there is nothing to strip
+                String value = texts[column].trim();
+                return isInterned(column) ? intern(value) : value;
+            case KIND_NUMERIC:
+                return String.valueOf((long) numbers[column]);
+            case KIND_DATE:
+                return DateUtil.getJavaDate(numbers[column]).toString();
+            case KIND_BOOLEAN:
+                return texts[column];
+            default:
+                return "";
+        }
+    }
+
+    private LocalDateTime getDate(int column) {
+        if (kinds[column] == KIND_DATE) {
+            // Excel date cell
+            return DateUtil.getLocalDateTime(numbers[column]);
+        } else if (kinds[column] == KIND_STRING) {
+            return parseDate(texts[column]);
+        }
+        return null;
+    }
+
+    public String intern(String value) {
+        if (value.isEmpty()) {
+            return "";
+        }
+        String existing = interned.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (interned.size() < MAX_INTERNED) {
+            interned.put(value, value);
+        }
+        return value;
+    }
+
+    // Accepts DD/MM/YYYY and DD-MM-YYYY (Indian format, day and month may be
+    // one digit) and YYYY-MM-DD (ISO), surrounded by optional whitespace.
+    // Returns null for anything else, including impossible dates.
+    public static LocalDateTime parseDate(String text) {
+        int end = text.length();
+        int i = 0;
+        while (i < end && text.charAt(i) <= ' ') i++;
+        while (end > i && text.charAt(end - 1) <= ' ') end--;
+
+        int first = 0, firstDigits = 0;
+        while (i < end && isDigit(text.charAt(i)) && firstDigits < 5) {
+            first = first * 10 + (text.charAt(i++) - '0');
+            firstDigits++;
+        }
+        if (firstDigits == 0 || i >= end) return null;
+        char separator = text.charAt(i++);
+        if (separator != '/' && separator != '-') return null;
+
+        int second = 0, secondDigits = 0;
+        while (i < end && isDigit(text.charAt(i)) && secondDigits < 3) {
+            second = second * 10 + (text.charAt(i++) - '0');
+            secondDigits++;
+        }
+        if (secondDigits == 0 || i >= end || text.charAt(i++) != separator) return null;
+
+        int third = 0, thirdDigits = 0;
+        while (i < end && isDigit(text.charAt(i)) && thirdDigits < 5) {
+            third = third * 10 + (text.charAt(i++) - '0');
+            thirdDigits++;
+        }
+        if (i != end || secondDigits > 2) return null;
+
+        try {
+            if (firstDigits <= 2 && thirdDigits == 4) {
+                // DD/MM/YYYY or DD-MM-YYYY
+                return LocalDateTime.of(third, second, first, 0, 0);
+            }
+            if (separator == '-' && firstDigits == 4 && thirdDigits >= 1 && thirdDigits <= 2) {
+                // YYYY-MM-DD
+                return LocalDateTime.of(first, second, third, 0, 0);
+            }
+        } catch (DateTimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,126 +1,172 @@
 package com.warehouse.service;
 
+import com.warehouse.dto.CursorPage;
 import com.warehouse.dto.TransactionDTO;
+import com.warehouse.dto.TransactionFilter;
 import com.warehouse.entity.Transaction;
+import com.warehouse.event.TransactionsDeletedEvent;
+import com.warehouse.event.TransactionsSavedEvent;
+import com.warehouse.repository.TransactionBatchRepository;
 import com.warehouse.repository.TransactionRepository;
+import com.warehouse.repository.TransactionSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class TransactionService {
     
+    // Listing and export order; matches the (created_at, id) index
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    
     @Autowired
     private TransactionRepository transactionRepository;
     
-    // Get all transactions
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+    
+    @Autowired
+    private TransactionMapper transactionMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private DatabaseWriter databaseWriter;
+    
+    // Get all transactions; reads build DTOs straight from the rows, see TransactionRepositoryCustom
     public List<TransactionDTO> getAllTransactions() {
-        return transactionRepository.findAll()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return transactionRepository.findDTOs(Specification.where(null), Sort.unsorted());
     }
     
     // Get transactions with filters
-    public Page<TransactionDTO> getTransactionsWithFilters(
-            String type, String materialType, LocalDateTime startDate, 
-            LocalDateTime endDate, String party, String productName, 
-            int page, int size) {
+    public Page<TransactionDTO> getTransactionsWithFilters(TransactionFilter filter, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, NEWEST_FIRST);
+        return transactionRepository.findDTOs(TransactionSpecifications.matching(filter), pageable);
+    }
+    
+    // Get transactions with filters by keyset, newest first. Pass null for the first
+    // page and the returned nextCursor afterwards; no COUNT query is run.
+    public CursorPage<TransactionDTO> getTransactionsWithFiltersAfter(TransactionFilter filter, String cursor, int size) {
+        Specification<Transaction> spec = TransactionSpecifications.matching(filter);
+        if (cursor != null && !cursor.isEmpty()) {
+            Transaction after = decodeCursor(cursor);
+            spec = spec.and(TransactionSpecifications.after(after.getCreatedAt(), after.getId()));
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Transaction> transactions = transactionRepository.findTransactionsWithFilters(
-                type, materialType, startDate, endDate, party, productName, pageable);
+        // One extra row tells whether another page follows
+        List<TransactionDTO> transactions = transactionRepository.findDTOs(spec, NEWEST_FIRST, size + 1);
         
-        return transactions.map(this::convertToDTO);
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            nextCursor = encodeCursor(transactions.get(size - 1));
+        }
+        return new CursorPage<>(transactions, nextCursor);
     }
     
-    // Get transactions for export
-    public List<TransactionDTO> getTransactionsForExport(
-            String type, String materialType, LocalDateTime startDate, 
-            LocalDateTime endDate, String party, String productName) {
-        
-        return transactionRepository.findTransactionsForExport(
-                type, materialType, startDate, endDate, party, productName)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Stream transactions for export one row at a time. Rows are read as DTOs,
+    // which the persistence context does not keep, so memory stays flat however
+    // many rows match.
+    public void forEachTransactionForExport(TransactionFilter filter, Consumer<TransactionDTO> action) {
+        try (Stream<TransactionDTO> transactions = transactionRepository.streamDTOs(
+                TransactionSpecifications.matching(filter), NEWEST_FIRST)) {
+            transactions.forEach(action);
+        }
     }
     
-    // Save a single transaction
+    // Save a single transaction; writes run on the database writer thread, so no
+    // transaction is opened here
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransactionDTO saveTransaction(TransactionDTO transactionDTO) {
-        Transaction transaction = convertToEntity(transactionDTO);
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return convertToDTO(savedTransaction);
+        Transaction transaction = transactionMapper.toEntity(transactionDTO);
+        Long id = transaction.getId();
+        Transaction savedTransaction = databaseWriter.execute(() -> {
+            // A retried write starts from the caller's id again, not the one a
+            // rolled back insert assigned
+            transaction.setId(id);
+            Transaction saved = transactionRepository.save(transaction);
+            eventPublisher.publishEvent(new TransactionsSavedEvent(List.of(saved)));
+            return saved;
+        });
+        return transactionMapper.toDTO(savedTransaction);
     }
     
-    // Save multiple transactions (for Excel upload)
+    // Save multiple transactions (for Excel upload) through the JDBC batch path
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TransactionDTO> saveTransactions(List<TransactionDTO> transactionDTOs) {
         List<Transaction> transactions = transactionDTOs.stream()
-                .map(this::convertToEntity)
+                .map(transactionMapper::toEntity)
                 .collect(Collectors.toList());
         
-        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        // The batch path bypasses Hibernate, so apply the entity constraints it would have checked
+        transactions.forEach(transactionMapper::validate);
+        
+        List<Transaction> savedTransactions = insertTransactions(transactions);
         return savedTransactions.stream()
-                .map(this::convertToDTO)
+                .map(transactionMapper::toDTO)
                 .collect(Collectors.toList());
     }
     
+    // Insert already validated new transactions in one database transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<Transaction> insertTransactions(List<Transaction> transactions) {
+        return databaseWriter.execute(() -> {
+            List<Transaction> savedTransactions = transactionBatchRepository.insertAll(transactions);
+            eventPublisher.publishEvent(new TransactionsSavedEvent(savedTransactions));
+            return savedTransactions;
+        });
+    }
+    
+    // The cursor is the (createdAt, id) of the last row returned, base64 encoded so
+    // clients treat it as opaque
+    private static String encodeCursor(TransactionDTO last) {
+        String key = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Transaction decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            Transaction after = new Transaction();
+            after.setCreatedAt(LocalDateTime.parse(key.substring(0, separator)));
+            after.setId(Long.parseLong(key.substring(separator + 1)));
+            return after;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
     // Get transaction by ID
     public TransactionDTO getTransactionById(Long id) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + id));
-        return convertToDTO(transaction);
+        return transactionMapper.toDTO(transaction);
     }
     
     // Delete transaction by ID
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteTransaction(Long id) {
-        transactionRepository.deleteById(id);
-    }
-    
-    // Convert Entity to DTO
-    private TransactionDTO convertToDTO(Transaction transaction) {
-        TransactionDTO dto = new TransactionDTO();
-        dto.setId(transaction.getId());
-        dto.setBarcode(transaction.getBarcode());
-        dto.setProductCode(transaction.getProductCode());
-        dto.setProductName(transaction.getProductName());
-        dto.setQuantity(transaction.getQuantity());
-        dto.setUnit(transaction.getUnit());
-        dto.setBatchNo(transaction.getBatchNo());
-        dto.setGrnNo(transaction.getGrnNo());
-        dto.setMaterialType(transaction.getMaterialType());
-        dto.setType(transaction.getType());
-        dto.setParty(transaction.getParty());
-        dto.setCreatedAt(transaction.getCreatedAt());
-        return dto;
-    }
-    
-    // Convert DTO to Entity
-    private Transaction convertToEntity(TransactionDTO dto) {
-        Transaction transaction = new Transaction();
-        transaction.setId(dto.getId());
-        transaction.setBarcode(dto.getBarcode());
-        transaction.setProductCode(dto.getProductCode());
-        transaction.setProductName(dto.getProductName());
-        transaction.setQuantity(dto.getQuantity());
-        transaction.setUnit(dto.getUnit());
-        transaction.setBatchNo(dto.getBatchNo());
-        transaction.setGrnNo(dto.getGrnNo());
-        transaction.setMaterialType(dto.getMaterialType());
-        transaction.setType(dto.getType());
-        transaction.setParty(dto.getParty());
-        if (dto.getCreatedAt() != null) {
-            transaction.setCreatedAt(dto.getCreatedAt());
-        }
-        return transaction;
+        databaseWriter.execute(() -> transactionRepository.findById(id).ifPresent(transaction -> {
+            transactionRepository.delete(transaction);
+            eventPublisher.publishEvent(new TransactionsDeletedEvent(List.of(id)));
+        }));
     }
 }
-
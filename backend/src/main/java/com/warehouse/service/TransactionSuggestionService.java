@@ -0,0 +1,169 @@
+package com.warehouse.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.warehouse.entity.Transaction;
+import com.warehouse.event.TransactionsSavedEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Suggestions for values typed on transactions, ranked by how often and how
+// recently they were used. Every use adds a weight that halves with each
+// half-life that passes. The weight is kept as a log2 value measured from
+// the epoch, so entries compare correctly without being decayed over time
+// and each new use is a constant-time update.
+@Service
+public class TransactionSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionSuggestionService.class);
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    public enum Field {
+        PARTY("party", Transaction::getParty),
+        PRODUCT_NAME("product_name", Transaction::getProductName);
+
+        private final String column;
+        private final Function<Transaction, String> getter;
+
+        Field(String column, Function<Transaction, String> getter) {
+            this.column = column;
+            this.getter = getter;
+        }
+    }
+
+    // A value with its use count and frequency/recency rank
+    private static final class Usage {
+        final String value;
+        final String lowerCaseValue;
+        final long count;
+        final double rank;
+
+        Usage(String value, long count, double rank) {
+            this.value = value;
+            this.lowerCaseValue = value.toLowerCase(Locale.ROOT);
+            this.count = count;
+            this.rank = rank;
+        }
+    }
+
+    private static final Comparator<Usage> BY_RANK = Comparator.<Usage>comparingDouble(u -> u.rank)
+            .thenComparingLong(u -> u.count)
+            .thenComparing(u -> u.value, Comparator.reverseOrder());
+
+    // Injected so counts are rebuilt only after migrations and Hibernate have started
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.autocomplete.limit:20}")
+    private int limit;
+
+    @Value("${warehouse.autocomplete.half-life-days:30}")
+    private double halfLifeDays;
+
+    private final Map<Field, ConcurrentHashMap<String, Usage>> fields = new EnumMap<>(Field.class);
+
+    public TransactionSuggestionService() {
+        for (Field field : Field.values()) {
+            fields.put(field, new ConcurrentHashMap<>());
+        }
+    }
+
+    // Rebuild the counts from the table, one row per value and day
+    @PostConstruct
+    public void rebuild() {
+        long start = System.nanoTime();
+        for (Field field : Field.values()) {
+            Map<String, Usage> usage = fields.get(field);
+            usage.clear();
+            jdbcTemplate.query("SELECT " + field.column + ", created_at / " + MILLIS_PER_DAY + ", COUNT(*) "
+                    + "FROM transactions WHERE " + field.column + " IS NOT NULL "
+                    + "GROUP BY " + field.column + ", created_at / " + MILLIS_PER_DAY, rs -> {
+                record(usage, rs.getString(1), rs.getLong(2) * MILLIS_PER_DAY, rs.getLong(3));
+            });
+        }
+        logger.info("Loaded {} party and {} product suggestions in {} ms",
+                fields.get(Field.PARTY).size(), fields.get(Field.PRODUCT_NAME).size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Also receives rows another site changed, after sync. Their new values
+    // count as one more use; the uses of the old values are kept, as decayed
+    // ranks cannot be taken back apart, and age out like any other.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransactionsSaved(TransactionsSavedEvent event) {
+        for (Transaction transaction : event.getTransactions()) {
+            LocalDateTime createdAt = transaction.getCreatedAt() != null ? transaction.getCreatedAt() : LocalDateTime.now();
+            long millis = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            for (Field field : Field.values()) {
+                record(fields.get(field), field.getter.apply(transaction), millis, 1);
+            }
+        }
+    }
+
+    // Best ranked values starting with term, ignoring case. A min-heap of the
+    // limit best seen so far keeps this at O(n log limit) over the distinct values.
+    public List<String> suggest(Field field, String term) {
+        String prefix = term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+        PriorityQueue<Usage> best = new PriorityQueue<>(limit + 1, BY_RANK);
+        for (Usage usage : fields.get(field).values()) {
+            if (!usage.lowerCaseValue.startsWith(prefix)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(usage);
+            } else if (BY_RANK.compare(usage, best.peek()) > 0) {
+                best.poll();
+                best.add(usage);
+            }
+        }
+
+        List<Usage> ranked = new ArrayList<>(best);
+        ranked.sort(Collections.reverseOrder(BY_RANK));
+        List<String> result = new ArrayList<>(ranked.size());
+        for (Usage usage : ranked) {
+            result.add(usage.value);
+        }
+        return result;
+    }
+
+    private void record(Map<String, Usage> usage, String value, long millis, long uses) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // log2 of this batch's weight: uses * 2^(days since epoch / half-life)
+        double rank = millis / (MILLIS_PER_DAY * halfLifeDays) + Math.log(uses) / Math.log(2);
+        usage.merge(value, new Usage(value, uses, rank),
+                (old, added) -> new Usage(value, old.count + added.count, log2Sum(old.rank, added.rank)));
+    }
+
+    // log2(2^a + 2^b) without overflowing for large exponents
+    private static double log2Sum(double a, double b) {
+        double max = Math.max(a, b);
+        double min = Math.min(a, b);
+        return max + Math.log1p(Math.pow(2, min - max)) / Math.log(2);
+    }
+}
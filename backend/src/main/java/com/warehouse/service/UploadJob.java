@@ -0,0 +1,181 @@
+package com.warehouse.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.warehouse.dto.UploadJobStatus;
+
+// Live progress of one background upload. Counters are updated by the worker
+// thread and read by status requests, so they are atomics/volatiles.
+public class UploadJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    // Time spent working vs. blocked on a pipeline queue, summed over a stage's threads
+    public static class StageTimer {
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong waitNanos = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+
+        public void busy(long nanos) {
+            busyNanos.addAndGet(nanos);
+        }
+
+        public void waited(long nanos) {
+            waitNanos.addAndGet(nanos);
+        }
+
+        public void batch() {
+            batches.incrementAndGet();
+        }
+
+        UploadJobStatus.StageTiming toTiming() {
+            UploadJobStatus.StageTiming timing = new UploadJobStatus.StageTiming();
+            timing.setBusyMillis(busyNanos.get() / 1_000_000);
+            timing.setWaitMillis(waitNanos.get() / 1_000_000);
+            timing.setBatches(batches.get());
+            return timing;
+        }
+    }
+
+    private final String id;
+    private final String fileName;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile State state = State.QUEUED;
+    private volatile String message = "Waiting in upload queue";
+    private volatile Long rowsTotal;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+
+    private final StageTimer readStage = new StageTimer();
+    private final StageTimer mapStage = new StageTimer();
+    private final StageTimer writeStage = new StageTimer();
+
+    public UploadJob(String id, String fileName) {
+        this.id = id;
+        this.fileName = fileName;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        message = "Processing";
+        state = State.RUNNING;
+    }
+
+    void complete(String message) {
+        finish(State.COMPLETED, message);
+    }
+
+    void fail(String message) {
+        finish(State.FAILED, message);
+    }
+
+    private void finish(State state, String message) {
+        finishedAt = LocalDateTime.now();
+        finishedNanos = System.nanoTime();
+        this.message = message;
+        this.state = state;
+    }
+
+    // Expected number of data rows, when the source can tell up front
+    public void setRowsTotal(Long rowsTotal) {
+        this.rowsTotal = rowsTotal;
+    }
+
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    public void rowRejected() {
+        rowsRejected.incrementAndGet();
+    }
+
+    public void rowsPersisted(long count) {
+        rowsPersisted.addAndGet(count);
+    }
+
+    public long getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public long getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public StageTimer getReadStage() {
+        return readStage;
+    }
+
+    public StageTimer getMapStage() {
+        return mapStage;
+    }
+
+    public StageTimer getWriteStage() {
+        return writeStage;
+    }
+
+    public UploadJobStatus toStatus() {
+        UploadJobStatus status = new UploadJobStatus();
+        status.setJobId(id);
+        status.setFileName(fileName);
+        status.setState(state.name());
+        status.setMessage(message);
+        status.setRowsTotal(rowsTotal);
+        status.setRowsParsed(rowsParsed.get());
+        status.setRowsPersisted(rowsPersisted.get());
+        status.setRowsRejected(rowsRejected.get());
+        status.setSubmittedAt(submittedAt);
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+
+        Map<String, UploadJobStatus.StageTiming> stages = new LinkedHashMap<>();
+        stages.put("read", readStage.toTiming());
+        stages.put("map", mapStage.toTiming());
+        stages.put("write", writeStage.toTiming());
+        status.setStages(stages);
+
+        if (startedAt != null) {
+            long end = finishedAt != null ? finishedNanos : System.nanoTime();
+            double seconds = (end - startedNanos) / 1_000_000_000.0;
+            double rate = seconds > 0 ? rowsParsed.get() / seconds : 0;
+            status.setRowsPerSecond(Math.round(rate * 10) / 10.0);
+            if (state == State.RUNNING && rowsTotal != null && rate > 0) {
+                long remaining = Math.max(0, rowsTotal - rowsParsed.get());
+                status.setEtaSeconds((long) Math.ceil(remaining / rate));
+            } else if (isFinished()) {
+                status.setEtaSeconds(0L);
+            }
+        }
+        return status;
+    }
+}
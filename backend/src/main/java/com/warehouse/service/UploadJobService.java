@@ -0,0 +1,175 @@
+package com.warehouse.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Runs Excel and CSV uploads in the background. The executor is bounded on
+// both threads and queue, so concurrent uploads wait their turn for the single
+// SQLite writer and are refused once the queue is full. Transaction uploads
+// run as an UploadPipeline (reader -> parallel mappers -> batched writer);
+// product uploads are read and written chunk by chunk.
+@Service
+public class UploadJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadJobService.class);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private ProductCsvReader productCsvReader;
+
+    @Autowired
+    private ProductService productService;
+
+    @Value("${warehouse.upload.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${warehouse.upload.workers:1}")
+    private int workers;
+
+    @Value("${warehouse.upload.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${warehouse.upload.retained-jobs:50}")
+    private int retainedJobs;
+
+    // Validator/mapper threads per upload; 0 means one per available core
+    @Value("${warehouse.upload.mappers:0}")
+    private int mappers;
+
+    @Value("${warehouse.upload.stage-queue-capacity:4}")
+    private int stageQueueCapacity;
+
+    private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "upload-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Queues a transactions upload of the given file, which the job deletes
+    // when done. Throws RejectedExecutionException when the upload queue is full.
+    public UploadJob submitTransactions(String fileName, Path file, TransactionFileReader reader, String fileLabel) {
+        return submit(fileName, file, fileLabel, (source, job) -> {
+            int mapperThreads = mappers > 0 ? mappers : Runtime.getRuntime().availableProcessors();
+            UploadPipeline pipeline = new UploadPipeline(reader, transactionMapper,
+                    transactionService, chunkSize, mapperThreads, stageQueueCapacity);
+            return pipeline.run(source, job);
+        });
+    }
+
+    // Queues a products CSV upload; each chunk is committed as it is read
+    public UploadJob submitProducts(String fileName, Path file) {
+        return submit(fileName, file, "CSV file", (source, job) ->
+                productCsvReader.read(source, chunkSize, job, chunk -> {
+                    productService.saveProducts(chunk);
+                    job.rowsPersisted(chunk.size());
+                }));
+    }
+
+    private UploadJob submit(String fileName, Path file, String fileLabel, UploadTask task) {
+        evictFinishedJobs();
+        UploadJob job = new UploadJob(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, file, fileLabel, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<UploadJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(UploadJob job, Path file, String fileLabel, UploadTask task) {
+        job.start();
+        try {
+            int total = task.run(file.toFile(), job);
+
+            if (total == 0 || job.getRowsPersisted() == 0) {
+                job.fail("No valid data found in the " + fileLabel);
+            } else if (job.getRowsRejected() > 0) {
+                job.complete(fileLabel + " processed: " + job.getRowsPersisted() + " rows saved, "
+                        + job.getRowsRejected() + " invalid rows skipped");
+            } else {
+                job.complete(fileLabel + " uploaded and processed successfully");
+            }
+        } catch (IOException e) {
+            job.fail("Error reading file: " + e.getMessage());
+        } catch (Exception e) {
+            logger.error("Upload job {} failed", job.getId(), e);
+            job.fail("Error processing file: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete upload temp file {}", file, e);
+            }
+        }
+    }
+
+    // Keep only the most recent finished jobs so the registry stays bounded
+    private void evictFinishedJobs() {
+        long finished = jobs.values().stream().filter(UploadJob::isFinished).count();
+        if (finished < retainedJobs) {
+            return;
+        }
+        Iterator<UploadJob> oldest = jobs.values().stream()
+                .filter(UploadJob::isFinished)
+                .sorted(Comparator.comparing(UploadJob::getFinishedAt))
+                .iterator();
+        while (finished >= retainedJobs && oldest.hasNext()) {
+            jobs.remove(oldest.next().getId());
+            finished--;
+        }
+    }
+
+    // Reads the uploaded file and persists its rows, returning how many rows were accepted
+    private interface UploadTask {
+        int run(File file, UploadJob job) throws IOException;
+    }
+}
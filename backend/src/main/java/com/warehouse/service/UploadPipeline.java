@@ -0,0 +1,243 @@
+package com.warehouse.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.warehouse.dto.TransactionDTO;
+import com.warehouse.entity.Transaction;
+
+// One upload run split into three stages connected by bounded queues:
+//
+//   reader (caller thread) -> [parsed] -> N mappers -> [mapped] -> 1 writer
+//
+// The reader streams the sheet into DTO chunks, the mappers convert and
+// validate rows in parallel, and the single writer batches them into SQLite.
+// A full queue blocks the stage in front of it, so memory stays bounded by
+// the queue capacities whichever stage is the bottleneck.
+class UploadPipeline {
+
+    // Sent once per mapper to signal the end of input
+    private static final List<TransactionDTO> END_OF_INPUT = new ArrayList<>();
+    private static final List<Transaction> END_OF_MAPPED = new ArrayList<>();
+
+    private static final long POLL_MILLIS = 100;
+
+    private final TransactionFileReader reader;
+    private final TransactionMapper mapper;
+    private final TransactionService transactionService;
+    private final int chunkSize;
+    private final int mappers;
+    private final int queueCapacity;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    UploadPipeline(TransactionFileReader reader, TransactionMapper mapper, TransactionService transactionService,
+                   int chunkSize, int mappers, int queueCapacity) {
+        this.reader = reader;
+        this.mapper = mapper;
+        this.transactionService = transactionService;
+        this.chunkSize = chunkSize;
+        this.mappers = Math.max(1, mappers);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    // Runs the whole pipeline and returns the number of rows the reader accepted
+    int run(File file, UploadJob job) throws IOException {
+        BlockingQueue<List<TransactionDTO>> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<Transaction>> mapped = new ArrayBlockingQueue<>(queueCapacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService stages = Executors.newFixedThreadPool(mappers + 1, r -> {
+            Thread t = new Thread(r, "upload-" + job.getId().substring(0, 8) + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < mappers; i++) {
+                futures.add(stages.submit(() -> guard(() -> mapStage(parsed, mapped, job))));
+            }
+            futures.add(stages.submit(() -> guard(() -> writeStage(mapped, job))));
+
+            int total;
+            try {
+                total = readStage(file, parsed, job);
+            } catch (IOException | RuntimeException e) {
+                // A failing downstream stage surfaces here through the parser; report that instead
+                rethrowFailure();
+                failure.compareAndSet(null, e);
+                throw e;
+            }
+            for (int i = 0; i < mappers; i++) {
+                put(parsed, END_OF_INPUT, null);
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            rethrowFailure();
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Upload was interrupted", e);
+        } catch (ExecutionException e) {
+            rethrowFailure();
+            throw new IllegalStateException(e.getCause());
+        } catch (PipelineAborted e) {
+            rethrowFailure();
+            throw new IllegalStateException("Upload pipeline aborted");
+        } finally {
+            stages.shutdownNow();
+        }
+    }
+
+    private int readStage(File file, BlockingQueue<List<TransactionDTO>> parsed, UploadJob job) throws IOException {
+        UploadJob.StageTimer timer = job.getReadStage();
+        long[] mark = {System.nanoTime()};
+        int total = reader.read(file, chunkSize, job, chunk -> {
+            long now = System.nanoTime();
+            timer.busy(now - mark[0]);
+            timer.batch();
+            put(parsed, chunk, timer);
+            mark[0] = System.nanoTime();
+        });
+        timer.busy(System.nanoTime() - mark[0]);
+        return total;
+    }
+
+    private void mapStage(BlockingQueue<List<TransactionDTO>> parsed, BlockingQueue<List<Transaction>> mapped,
+                          UploadJob job) {
+        UploadJob.StageTimer timer = job.getMapStage();
+        try {
+            while (true) {
+                List<TransactionDTO> chunk = take(parsed, timer);
+                if (chunk == END_OF_INPUT) {
+                    return;
+                }
+                long start = System.nanoTime();
+                List<Transaction> valid = new ArrayList<>(chunk.size());
+                for (TransactionDTO dto : chunk) {
+                    Transaction transaction = mapper.toEntity(dto);
+                    if (mapper.isValid(transaction)) {
+                        valid.add(transaction);
+                    } else {
+                        job.rowRejected();
+                    }
+                }
+                timer.busy(System.nanoTime() - start);
+                timer.batch();
+                if (!valid.isEmpty()) {
+                    put(mapped, valid, timer);
+                }
+            }
+        } finally {
+            put(mapped, END_OF_MAPPED, null);
+        }
+    }
+
+    private void writeStage(BlockingQueue<List<Transaction>> mapped, UploadJob job) {
+        UploadJob.StageTimer timer = job.getWriteStage();
+        int finishedMappers = 0;
+        List<Transaction> batch = new ArrayList<>();
+        while (finishedMappers < mappers) {
+            List<Transaction> chunk = take(mapped, timer);
+            if (chunk == END_OF_MAPPED) {
+                finishedMappers++;
+                continue;
+            }
+            batch.addAll(chunk);
+            // Fold in whatever else is already waiting, up to one chunk per mapper
+            List<Transaction> next;
+            while (batch.size() < chunkSize * mappers && (next = mapped.peek()) != null && next != END_OF_MAPPED) {
+                batch.addAll(mapped.poll());
+            }
+
+            long start = System.nanoTime();
+            transactionService.insertTransactions(batch);
+            timer.busy(System.nanoTime() - start);
+            timer.batch();
+            job.rowsPersisted(batch.size());
+            batch = new ArrayList<>();
+        }
+    }
+
+    // Records the first failure so the other stages stop instead of blocking forever
+    private void guard(Runnable stage) {
+        try {
+            stage.run();
+        } catch (PipelineAborted e) {
+            // Another stage failed first
+        } catch (RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    private <T> void put(BlockingQueue<T> queue, T item, UploadJob.StageTimer timer) {
+        long start = System.nanoTime();
+        try {
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    throw new PipelineAborted();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            throw new PipelineAborted();
+        } finally {
+            if (timer != null) {
+                timer.waited(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private <T> T take(BlockingQueue<T> queue, UploadJob.StageTimer timer) {
+        long start = System.nanoTime();
+        try {
+            T item;
+            while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (failure.get() != null) {
+                    throw new PipelineAborted();
+                }
+            }
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+            throw new PipelineAborted();
+        } finally {
+            timer.waited(System.nanoTime() - start);
+        }
+    }
+
+    private void rethrowFailure() {
+        Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t != null) {
+            throw new IllegalStateException(t.getMessage(), t);
+        }
+    }
+
+    private static class PipelineAborted extends RuntimeException {
+        PipelineAborted() {
+            super(null, null, false, false);
+        }
+    }
+}
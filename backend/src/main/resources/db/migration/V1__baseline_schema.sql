@@ -0,0 +1,50 @@
+-- Tables as Hibernate created them before migrations were introduced.
+-- IF NOT EXISTS lets this run against databases that already have them.
+
+CREATE TABLE IF NOT EXISTS product_names (
+    id integer,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id integer,
+    batch_no varchar(255),
+    created_at timestamp,
+    date timestamp,
+    date_added timestamp,
+    grn_no varchar(255),
+    material_type varchar(255) not null check (material_type in ('RM','PM','FM')),
+    packets float,
+    product_code varchar(255) not null,
+    product_name varchar(255) not null,
+    qty_per_packet float,
+    quantity float not null,
+    sales_invoice_no varchar(255),
+    source varchar(255) not null,
+    unit varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS suppliers (
+    id integer,
+    name varchar(255) not null,
+    type varchar(255),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id integer,
+    barcode varchar(255),
+    batch_no varchar(255),
+    created_at timestamp not null,
+    grn_no varchar(255),
+    material_type varchar(255) not null,
+    party varchar(255) not null,
+    product_code varchar(255) not null,
+    product_name varchar(255) not null,
+    quantity numeric(10,2) not null,
+    type varchar(255) not null,
+    unit varchar(255) not null,
+    primary key (id)
+);
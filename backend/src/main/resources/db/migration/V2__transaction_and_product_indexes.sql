@@ -0,0 +1,18 @@
+-- Index set for the listing, export, lookup and autocomplete queries.
+-- Keep SchemaIndexCheck in sync when adding or renaming indexes here.
+
+-- Date ranges and newest-first paging (created_at, id)
+CREATE INDEX IF NOT EXISTS idx_transactions_created_at_id ON transactions (created_at, id);
+
+-- Equality filters followed by the sort columns
+CREATE INDEX IF NOT EXISTS idx_transactions_type_created_at ON transactions (type, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_material_type_created_at ON transactions (material_type, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_transactions_type_material_type_created_at ON transactions (type, material_type, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_transactions_product_code ON transactions (product_code);
+
+-- Product lookups by code and name (autofill)
+CREATE INDEX IF NOT EXISTS idx_products_product_code ON products (product_code);
+CREATE INDEX IF NOT EXISTS idx_products_product_name ON products (product_name);
+
+-- product_names(name) is covered by the UNIQUE constraint's automatic index
@@ -0,0 +1,52 @@
+-- Trigram full-text indexes for substring search on products and transactions.
+-- Both are external-content tables: they store only the index and read the
+-- text from the base table, kept in sync by the triggers below. The trigram
+-- tokenizer matches any substring of three or more characters, ignoring case.
+
+CREATE VIRTUAL TABLE IF NOT EXISTS products_fts USING fts5(
+    product_name, product_code,
+    content = 'products', content_rowid = 'id', tokenize = 'trigram'
+);
+
+CREATE TRIGGER IF NOT EXISTS products_fts_insert AFTER INSERT ON products BEGIN
+    INSERT INTO products_fts (rowid, product_name, product_code)
+    VALUES (new.id, new.product_name, new.product_code);
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_fts_delete AFTER DELETE ON products BEGIN
+    INSERT INTO products_fts (products_fts, rowid, product_name, product_code)
+    VALUES ('delete', old.id, old.product_name, old.product_code);
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_fts_update AFTER UPDATE OF product_name, product_code ON products BEGIN
+    INSERT INTO products_fts (products_fts, rowid, product_name, product_code)
+    VALUES ('delete', old.id, old.product_name, old.product_code);
+    INSERT INTO products_fts (rowid, product_name, product_code)
+    VALUES (new.id, new.product_name, new.product_code);
+END;
+
+CREATE VIRTUAL TABLE IF NOT EXISTS transactions_fts USING fts5(
+    party, product_name,
+    content = 'transactions', content_rowid = 'id', tokenize = 'trigram'
+);
+
+CREATE TRIGGER IF NOT EXISTS transactions_fts_insert AFTER INSERT ON transactions BEGIN
+    INSERT INTO transactions_fts (rowid, party, product_name)
+    VALUES (new.id, new.party, new.product_name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_fts_delete AFTER DELETE ON transactions BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, party, product_name)
+    VALUES ('delete', old.id, old.party, old.product_name);
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_fts_update AFTER UPDATE OF party, product_name ON transactions BEGIN
+    INSERT INTO transactions_fts (transactions_fts, rowid, party, product_name)
+    VALUES ('delete', old.id, old.party, old.product_name);
+    INSERT INTO transactions_fts (rowid, party, product_name)
+    VALUES (new.id, new.party, new.product_name);
+END;
+
+-- Index the rows that existed before this migration
+INSERT INTO products_fts (products_fts) VALUES ('rebuild');
+INSERT INTO transactions_fts (transactions_fts) VALUES ('rebuild');
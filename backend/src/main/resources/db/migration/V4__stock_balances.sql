@@ -0,0 +1,88 @@
+-- Current stock per (product_code, batch_no, unit), kept up to date by the
+-- triggers below inside the same transaction as every change to transactions.
+-- batch_no is stored as '' when the transaction has none, so it can be part
+-- of the primary key. Sums are rounded to the 2 decimals of
+-- transactions.quantity so repeated additions do not drift.
+
+CREATE TABLE IF NOT EXISTS stock_balances (
+    product_code TEXT NOT NULL,
+    batch_no TEXT NOT NULL DEFAULT '',
+    unit TEXT NOT NULL,
+    product_name TEXT,
+    quantity_in REAL NOT NULL DEFAULT 0,
+    quantity_out REAL NOT NULL DEFAULT 0,
+    balance REAL NOT NULL DEFAULT 0,
+    transaction_count INTEGER NOT NULL DEFAULT 0,
+    last_transaction_at INTEGER,
+    PRIMARY KEY (product_code, batch_no, unit)
+) WITHOUT ROWID;
+
+CREATE TRIGGER IF NOT EXISTS stock_balances_insert AFTER INSERT ON transactions BEGIN
+    INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                                quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+    VALUES (new.product_code, COALESCE(new.batch_no, ''), new.unit, new.product_name,
+            CASE WHEN new.type = 'IN' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'OUT' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'IN' THEN new.quantity WHEN new.type = 'OUT' THEN -new.quantity ELSE 0 END,
+            1, new.created_at)
+    ON CONFLICT (product_code, batch_no, unit) DO UPDATE SET
+        product_name = excluded.product_name,
+        quantity_in = ROUND(quantity_in + excluded.quantity_in, 2),
+        quantity_out = ROUND(quantity_out + excluded.quantity_out, 2),
+        balance = ROUND(balance + excluded.balance, 2),
+        transaction_count = transaction_count + 1,
+        last_transaction_at = MAX(COALESCE(last_transaction_at, 0), excluded.last_transaction_at);
+END;
+
+CREATE TRIGGER IF NOT EXISTS stock_balances_delete AFTER DELETE ON transactions BEGIN
+    UPDATE stock_balances SET
+        quantity_in = ROUND(quantity_in - CASE WHEN old.type = 'IN' THEN old.quantity ELSE 0 END, 2),
+        quantity_out = ROUND(quantity_out - CASE WHEN old.type = 'OUT' THEN old.quantity ELSE 0 END, 2),
+        balance = ROUND(balance - CASE WHEN old.type = 'IN' THEN old.quantity WHEN old.type = 'OUT' THEN -old.quantity ELSE 0 END, 2),
+        transaction_count = transaction_count - 1
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit;
+    DELETE FROM stock_balances
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND transaction_count <= 0;
+END;
+
+-- An update moves the old row's quantity out of its balance and the new one in
+CREATE TRIGGER IF NOT EXISTS stock_balances_update
+AFTER UPDATE OF product_code, batch_no, unit, quantity, type ON transactions BEGIN
+    UPDATE stock_balances SET
+        quantity_in = ROUND(quantity_in - CASE WHEN old.type = 'IN' THEN old.quantity ELSE 0 END, 2),
+        quantity_out = ROUND(quantity_out - CASE WHEN old.type = 'OUT' THEN old.quantity ELSE 0 END, 2),
+        balance = ROUND(balance - CASE WHEN old.type = 'IN' THEN old.quantity WHEN old.type = 'OUT' THEN -old.quantity ELSE 0 END, 2),
+        transaction_count = transaction_count - 1
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit;
+    DELETE FROM stock_balances
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND transaction_count <= 0;
+    INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                                quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+    VALUES (new.product_code, COALESCE(new.batch_no, ''), new.unit, new.product_name,
+            CASE WHEN new.type = 'IN' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'OUT' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'IN' THEN new.quantity WHEN new.type = 'OUT' THEN -new.quantity ELSE 0 END,
+            1, new.created_at)
+    ON CONFLICT (product_code, batch_no, unit) DO UPDATE SET
+        product_name = excluded.product_name,
+        quantity_in = ROUND(quantity_in + excluded.quantity_in, 2),
+        quantity_out = ROUND(quantity_out + excluded.quantity_out, 2),
+        balance = ROUND(balance + excluded.balance, 2),
+        transaction_count = transaction_count + 1,
+        last_transaction_at = MAX(COALESCE(last_transaction_at, 0), excluded.last_transaction_at);
+END;
+
+-- Balances for the rows that existed before this migration. Same statement
+-- as StockBalanceRepository.rebuild; the bare product_name column takes the
+-- value from the row with the latest created_at.
+INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                            quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+SELECT product_code, COALESCE(batch_no, ''), unit, product_name,
+       ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity ELSE 0 END), 2),
+       ROUND(TOTAL(CASE WHEN type = 'OUT' THEN quantity ELSE 0 END), 2),
+       ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity WHEN type = 'OUT' THEN -quantity ELSE 0 END), 2),
+       COUNT(*), MAX(created_at)
+FROM transactions
+GROUP BY product_code, COALESCE(batch_no, ''), unit;
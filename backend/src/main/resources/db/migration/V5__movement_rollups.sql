@@ -0,0 +1,92 @@
+-- IN/OUT totals per day and per month for three dimensions: material type,
+-- product code and party. The triggers below update them in the same
+-- transaction as every change to transactions. Rows are bucketed by their own
+-- created_at, so backdated rows from uploads land in the right day and month.
+-- Buckets are local dates ('2024-03-01') and months ('2024-03'), matching how
+-- the application stores created_at.
+
+CREATE TABLE IF NOT EXISTS movement_rollups (
+    dimension TEXT NOT NULL,
+    period TEXT NOT NULL,
+    bucket TEXT NOT NULL,
+    dimension_key TEXT NOT NULL,
+    quantity_in REAL NOT NULL DEFAULT 0,
+    quantity_out REAL NOT NULL DEFAULT 0,
+    transaction_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, period, bucket, dimension_key)
+) WITHOUT ROWID;
+
+-- Inserting into this view applies one transaction to all six rollups it
+-- belongs to, added when sign is 1 and removed when sign is -1. It lets the
+-- triggers on transactions share a single copy of the upsert.
+CREATE VIEW IF NOT EXISTS movement_rollup_changes AS
+SELECT NULL AS created_at, NULL AS material_type, NULL AS product_code, NULL AS party,
+       NULL AS type, NULL AS quantity, NULL AS sign
+WHERE 0;
+
+CREATE TRIGGER IF NOT EXISTS movement_rollup_changes_apply
+INSTEAD OF INSERT ON movement_rollup_changes BEGIN
+    INSERT INTO movement_rollups (dimension, period, bucket, dimension_key,
+                                  quantity_in, quantity_out, transaction_count)
+    SELECT d.dimension, p.period, p.bucket, d.dimension_key,
+           new.sign * CASE WHEN new.type = 'IN' THEN new.quantity ELSE 0 END,
+           new.sign * CASE WHEN new.type = 'OUT' THEN new.quantity ELSE 0 END,
+           new.sign
+    FROM (SELECT 'day' AS period, date(new.created_at / 1000, 'unixepoch', 'localtime') AS bucket
+          UNION ALL
+          SELECT 'month', strftime('%Y-%m', new.created_at / 1000, 'unixepoch', 'localtime')) p,
+         (SELECT 'material_type' AS dimension, new.material_type AS dimension_key
+          UNION ALL SELECT 'product', new.product_code
+          UNION ALL SELECT 'party', new.party) d
+    WHERE d.dimension_key IS NOT NULL
+    ON CONFLICT (dimension, period, bucket, dimension_key) DO UPDATE SET
+        quantity_in = ROUND(quantity_in + excluded.quantity_in, 2),
+        quantity_out = ROUND(quantity_out + excluded.quantity_out, 2),
+        transaction_count = transaction_count + excluded.transaction_count;
+
+    DELETE FROM movement_rollups
+    WHERE new.sign < 0 AND transaction_count <= 0
+      AND bucket IN (date(new.created_at / 1000, 'unixepoch', 'localtime'),
+                     strftime('%Y-%m', new.created_at / 1000, 'unixepoch', 'localtime'))
+      AND dimension_key IN (new.material_type, new.product_code, new.party);
+END;
+
+CREATE TRIGGER IF NOT EXISTS movement_rollups_insert AFTER INSERT ON transactions BEGIN
+    INSERT INTO movement_rollup_changes
+    VALUES (new.created_at, new.material_type, new.product_code, new.party, new.type, new.quantity, 1);
+END;
+
+CREATE TRIGGER IF NOT EXISTS movement_rollups_delete AFTER DELETE ON transactions BEGIN
+    INSERT INTO movement_rollup_changes
+    VALUES (old.created_at, old.material_type, old.product_code, old.party, old.type, old.quantity, -1);
+END;
+
+CREATE TRIGGER IF NOT EXISTS movement_rollups_update
+AFTER UPDATE OF created_at, material_type, product_code, party, type, quantity ON transactions BEGIN
+    INSERT INTO movement_rollup_changes
+    VALUES (old.created_at, old.material_type, old.product_code, old.party, old.type, old.quantity, -1);
+    INSERT INTO movement_rollup_changes
+    VALUES (new.created_at, new.material_type, new.product_code, new.party, new.type, new.quantity, 1);
+END;
+
+-- Rollups for the rows that existed before this migration: every row is
+-- repeated once per period and dimension, then grouped
+WITH rows AS (
+    SELECT date(created_at / 1000, 'unixepoch', 'localtime') AS day,
+           strftime('%Y-%m', created_at / 1000, 'unixepoch', 'localtime') AS month,
+           material_type, product_code, party, type, quantity
+    FROM transactions
+),
+periods (period) AS (VALUES ('day'), ('month')),
+dimensions (dimension) AS (VALUES ('material_type'), ('product'), ('party'))
+INSERT INTO movement_rollups (dimension, period, bucket, dimension_key, quantity_in, quantity_out, transaction_count)
+SELECT dimension, period,
+       CASE period WHEN 'day' THEN day ELSE month END AS bucket,
+       CASE dimension WHEN 'material_type' THEN material_type
+                      WHEN 'product' THEN product_code ELSE party END AS dimension_key,
+       ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity ELSE 0 END), 2),
+       ROUND(TOTAL(CASE WHEN type = 'OUT' THEN quantity ELSE 0 END), 2),
+       COUNT(*)
+FROM rows, periods, dimensions
+WHERE dimension_key IS NOT NULL
+GROUP BY dimension, period, bucket, dimension_key;
@@ -0,0 +1,112 @@
+-- Change tracking for syncing sites that each run their own database.
+--
+-- Every transaction and product row gets a uid, a generated id that is the
+-- same on every site, so rows copied between sites are never duplicated. The
+-- triggers below record each insert, update and delete in change_log, inside
+-- the same transaction. change_log holds one entry per row, the latest
+-- change, with a deleted flag as a tombstone. Its seq only grows, so another
+-- site that remembers the highest seq it has seen (its high-watermark) can
+-- ask for everything after it. modified_at (epoch millis) and origin (the
+-- site the change was made on) travel with each change. The newer change
+-- wins, with origin breaking ties.
+
+ALTER TABLE transactions ADD COLUMN uid TEXT;
+ALTER TABLE products ADD COLUMN uid TEXT;
+
+UPDATE transactions SET uid = printf('%012x', CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)) || lower(hex(randomblob(10)))
+WHERE uid IS NULL;
+UPDATE products SET uid = printf('%012x', CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)) || lower(hex(randomblob(10)))
+WHERE uid IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_transactions_uid ON transactions (uid);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_products_uid ON products (uid);
+
+-- This site's id, written once
+CREATE TABLE IF NOT EXISTS sync_state (
+    key TEXT NOT NULL PRIMARY KEY,
+    value TEXT NOT NULL
+) WITHOUT ROWID;
+
+INSERT OR IGNORE INTO sync_state (key, value) VALUES ('site_id', lower(hex(randomblob(8))));
+
+CREATE TABLE IF NOT EXISTS change_log (
+    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+    table_name TEXT NOT NULL,
+    row_uid TEXT NOT NULL,
+    deleted INTEGER NOT NULL DEFAULT 0,
+    modified_at INTEGER NOT NULL,
+    origin TEXT NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_change_log_row ON change_log (table_name, row_uid);
+
+-- Highest seq of each other site applied here, stored with the changes it covers
+CREATE TABLE IF NOT EXISTS sync_peers (
+    site_id TEXT NOT NULL PRIMARY KEY,
+    last_seq INTEGER NOT NULL,
+    updated_at INTEGER NOT NULL
+) WITHOUT ROWID;
+
+-- The rows that existed before this migration, as changes made here now
+INSERT INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+SELECT 'products', uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+       (SELECT value FROM sync_state WHERE key = 'site_id')
+FROM products ORDER BY id;
+
+INSERT INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+SELECT 'transactions', uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+       (SELECT value FROM sync_state WHERE key = 'site_id')
+FROM transactions ORDER BY id;
+
+-- Rows inserted without a uid get one here: the time in millis, then random
+-- bytes. New uids sort after older ones, so the uid indexes grow at their end
+-- like the id index instead of taking every insert at a random page. REPLACE
+-- drops the row's previous entry, so the new one takes the next seq. Updates
+-- that only fill in the uid (old.uid IS NULL) are part of the insert and not
+-- logged again.
+
+CREATE TRIGGER IF NOT EXISTS transactions_sync_insert AFTER INSERT ON transactions BEGIN
+    UPDATE transactions SET uid = printf('%012x', CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)) || lower(hex(randomblob(10)))
+        WHERE id = new.id AND uid IS NULL;
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    SELECT 'transactions', uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+           (SELECT value FROM sync_state WHERE key = 'site_id')
+    FROM transactions WHERE id = new.id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_sync_update AFTER UPDATE ON transactions
+WHEN old.uid IS NOT NULL BEGIN
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    VALUES ('transactions', new.uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+            (SELECT value FROM sync_state WHERE key = 'site_id'));
+END;
+
+CREATE TRIGGER IF NOT EXISTS transactions_sync_delete AFTER DELETE ON transactions
+WHEN old.uid IS NOT NULL BEGIN
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    VALUES ('transactions', old.uid, 1, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+            (SELECT value FROM sync_state WHERE key = 'site_id'));
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_sync_insert AFTER INSERT ON products BEGIN
+    UPDATE products SET uid = printf('%012x', CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER)) || lower(hex(randomblob(10)))
+        WHERE id = new.id AND uid IS NULL;
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    SELECT 'products', uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+           (SELECT value FROM sync_state WHERE key = 'site_id')
+    FROM products WHERE id = new.id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_sync_update AFTER UPDATE ON products
+WHEN old.uid IS NOT NULL BEGIN
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    VALUES ('products', new.uid, 0, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+            (SELECT value FROM sync_state WHERE key = 'site_id'));
+END;
+
+CREATE TRIGGER IF NOT EXISTS products_sync_delete AFTER DELETE ON products
+WHEN old.uid IS NOT NULL BEGIN
+    INSERT OR REPLACE INTO change_log (table_name, row_uid, deleted, modified_at, origin)
+    VALUES ('products', old.uid, 1, CAST((julianday('now') - 2440587.5) * 86400000 AS INTEGER),
+            (SELECT value FROM sync_state WHERE key = 'site_id'));
+END;
@@ -0,0 +1,101 @@
+-- product_name and last_transaction_at of a balance come from its transaction
+-- with the latest created_at, as in StockBalanceRepository.rebuild. The V4
+-- triggers took product_name from the last inserted row, even a backdated
+-- one, and kept last_transaction_at pointing at deleted or moved rows.
+--
+-- Inserts now overwrite both only when the new row is at least as recent.
+-- Deletes and updates recompute them for the old key, but only when the
+-- removed row was the latest. Updates of product_name and created_at fire the
+-- update trigger too.
+
+DROP TRIGGER IF EXISTS stock_balances_insert;
+DROP TRIGGER IF EXISTS stock_balances_delete;
+DROP TRIGGER IF EXISTS stock_balances_update;
+
+CREATE TRIGGER IF NOT EXISTS stock_balances_insert AFTER INSERT ON transactions BEGIN
+    INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                                quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+    VALUES (new.product_code, COALESCE(new.batch_no, ''), new.unit, new.product_name,
+            CASE WHEN new.type = 'IN' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'OUT' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'IN' THEN new.quantity WHEN new.type = 'OUT' THEN -new.quantity ELSE 0 END,
+            1, new.created_at)
+    ON CONFLICT (product_code, batch_no, unit) DO UPDATE SET
+        product_name = CASE WHEN excluded.last_transaction_at >= COALESCE(last_transaction_at, excluded.last_transaction_at)
+                            THEN excluded.product_name ELSE product_name END,
+        quantity_in = ROUND(quantity_in + excluded.quantity_in, 2),
+        quantity_out = ROUND(quantity_out + excluded.quantity_out, 2),
+        balance = ROUND(balance + excluded.balance, 2),
+        transaction_count = transaction_count + 1,
+        last_transaction_at = MAX(COALESCE(last_transaction_at, excluded.last_transaction_at),
+                                  COALESCE(excluded.last_transaction_at, last_transaction_at));
+END;
+
+CREATE TRIGGER IF NOT EXISTS stock_balances_delete AFTER DELETE ON transactions BEGIN
+    UPDATE stock_balances SET
+        quantity_in = ROUND(quantity_in - CASE WHEN old.type = 'IN' THEN old.quantity ELSE 0 END, 2),
+        quantity_out = ROUND(quantity_out - CASE WHEN old.type = 'OUT' THEN old.quantity ELSE 0 END, 2),
+        balance = ROUND(balance - CASE WHEN old.type = 'IN' THEN old.quantity WHEN old.type = 'OUT' THEN -old.quantity ELSE 0 END, 2),
+        transaction_count = transaction_count - 1
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit;
+    DELETE FROM stock_balances
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND transaction_count <= 0;
+    UPDATE stock_balances SET (product_name, last_transaction_at) = (
+        SELECT product_name, MAX(created_at) FROM transactions
+        WHERE product_code = old.product_code AND COALESCE(batch_no, '') = COALESCE(old.batch_no, '')
+          AND unit = old.unit)
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND (last_transaction_at IS NULL OR last_transaction_at <= old.created_at);
+END;
+
+-- An update moves the old row's quantity out of its balance and the new one in
+CREATE TRIGGER IF NOT EXISTS stock_balances_update
+AFTER UPDATE OF product_code, batch_no, unit, quantity, type, product_name, created_at ON transactions BEGIN
+    UPDATE stock_balances SET
+        quantity_in = ROUND(quantity_in - CASE WHEN old.type = 'IN' THEN old.quantity ELSE 0 END, 2),
+        quantity_out = ROUND(quantity_out - CASE WHEN old.type = 'OUT' THEN old.quantity ELSE 0 END, 2),
+        balance = ROUND(balance - CASE WHEN old.type = 'IN' THEN old.quantity WHEN old.type = 'OUT' THEN -old.quantity ELSE 0 END, 2),
+        transaction_count = transaction_count - 1
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit;
+    DELETE FROM stock_balances
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND transaction_count <= 0;
+    -- The updated row already has its new values, so it only counts here if it kept its key
+    UPDATE stock_balances SET (product_name, last_transaction_at) = (
+        SELECT product_name, MAX(created_at) FROM transactions
+        WHERE product_code = old.product_code AND COALESCE(batch_no, '') = COALESCE(old.batch_no, '')
+          AND unit = old.unit AND id <> new.id)
+    WHERE product_code = old.product_code AND batch_no = COALESCE(old.batch_no, '') AND unit = old.unit
+      AND (last_transaction_at IS NULL OR last_transaction_at <= old.created_at);
+    INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                                quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+    VALUES (new.product_code, COALESCE(new.batch_no, ''), new.unit, new.product_name,
+            CASE WHEN new.type = 'IN' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'OUT' THEN new.quantity ELSE 0 END,
+            CASE WHEN new.type = 'IN' THEN new.quantity WHEN new.type = 'OUT' THEN -new.quantity ELSE 0 END,
+            1, new.created_at)
+    ON CONFLICT (product_code, batch_no, unit) DO UPDATE SET
+        product_name = CASE WHEN excluded.last_transaction_at >= COALESCE(last_transaction_at, excluded.last_transaction_at)
+                            THEN excluded.product_name ELSE product_name END,
+        quantity_in = ROUND(quantity_in + excluded.quantity_in, 2),
+        quantity_out = ROUND(quantity_out + excluded.quantity_out, 2),
+        balance = ROUND(balance + excluded.balance, 2),
+        transaction_count = transaction_count + 1,
+        last_transaction_at = MAX(COALESCE(last_transaction_at, excluded.last_transaction_at),
+                                  COALESCE(excluded.last_transaction_at, last_transaction_at));
+END;
+
+-- Correct the balances the old triggers left behind. Same statement as
+-- StockBalanceRepository.rebuild.
+DELETE FROM stock_balances;
+
+INSERT INTO stock_balances (product_code, batch_no, unit, product_name,
+                            quantity_in, quantity_out, balance, transaction_count, last_transaction_at)
+SELECT product_code, COALESCE(batch_no, ''), unit, product_name,
+       ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity ELSE 0 END), 2),
+       ROUND(TOTAL(CASE WHEN type = 'OUT' THEN quantity ELSE 0 END), 2),
+       ROUND(TOTAL(CASE WHEN type = 'IN' THEN quantity WHEN type = 'OUT' THEN -quantity ELSE 0 END), 2),
+       COUNT(*), MAX(created_at)
+FROM transactions
+GROUP BY product_code, COALESCE(batch_no, ''), unit;
@@ -0,0 +1,169 @@
+package com.warehouse.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.warehouse.dto.TransactionFilter;
+import com.warehouse.entity.Transaction;
+
+// Runs the SQL that TransactionSpecifications generates through EXPLAIN QUERY
+// PLAN on a database migrated by Flyway, to check that every filter
+// combination is answered from its index and never by scanning the table.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.warehouse.repository.TransactionSpecificationsPlanTest$SqlRecorder"
+})
+class TransactionSpecificationsPlanTest {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 12, 31, 23, 59);
+
+    // Keeps the SQL of every statement Hibernate prepares
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("warehouse-plan-test");
+        dir.toFile().deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("warehouse.db"));
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearStatements() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> filters() {
+        return Stream.of(
+                Arguments.of("type", filter("IN", null, null, null, null, null),
+                        "idx_transactions_type_created_at"),
+                Arguments.of("material type", filter(null, "RM", null, null, null, null),
+                        "idx_transactions_material_type_created_at"),
+                Arguments.of("type and material type", filter("OUT", "FG", null, null, null, null),
+                        "idx_transactions_type_material_type_created_at"),
+                Arguments.of("date range", filter(null, null, START, END, null, null),
+                        "idx_transactions_created_at_id"),
+                Arguments.of("type and date range", filter("IN", null, START, END, null, null),
+                        "idx_transactions_type_created_at"),
+                Arguments.of("material type and start date", filter(null, "RM", START, null, null, null),
+                        "idx_transactions_material_type_created_at"),
+                Arguments.of("all equality filters and date range", filter("IN", "RM", START, END, null, null),
+                        "idx_transactions_type_material_type_created_at"),
+                Arguments.of("no filter", filter(null, null, null, null, null, null),
+                        "idx_transactions_created_at_id"),
+                Arguments.of("short party term", filter(null, null, null, null, "ab", null),
+                        "idx_transactions_created_at_id"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void filtersUseTheirIndex(String name, TransactionFilter filter, String index) {
+        List<String> plan = plan(TransactionSpecifications.matching(filter));
+
+        assertThat(plan).anyMatch(step -> step.contains("USING INDEX " + index)
+                || step.contains("USING COVERING INDEX " + index));
+        assertNoTableScan(plan);
+        assertThat(plan).noneMatch(step -> step.contains("TEMP B-TREE"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("textFilters")
+    void textFiltersUseTheFullTextIndex(String name, TransactionFilter filter) {
+        List<String> plan = plan(TransactionSpecifications.matching(filter));
+
+        assertThat(plan).anyMatch(step -> step.contains("transactions_fts VIRTUAL TABLE INDEX"));
+        assertNoTableScan(plan);
+    }
+
+    static Stream<Arguments> textFilters() {
+        return Stream.of(
+                Arguments.of("party", filter(null, null, null, null, "Acme", null)),
+                Arguments.of("product name", filter(null, null, null, null, null, "Steel rod")),
+                Arguments.of("party, type and date range", filter("OUT", null, START, END, "Acme", null)));
+    }
+
+    // The keyset condition adds a created_at bound, so the next page is a seek
+    // into a created_at index rather than a walk from the newest row
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("filters")
+    void keysetPagesSeekAnIndex(String name, TransactionFilter filter, String index) {
+        Specification<Transaction> spec = TransactionSpecifications.matching(filter)
+                .and(TransactionSpecifications.after(END, 1000L));
+        List<String> plan = plan(spec);
+
+        assertThat(plan).anyMatch(step -> step.matches(
+                "SEARCH \\w+ USING INDEX idx_transactions_\\w*created_at\\w* \\(.*created_at<\\?\\)"));
+        assertNoTableScan(plan);
+        assertThat(plan).noneMatch(step -> step.contains("TEMP B-TREE"));
+    }
+
+    // EXPLAIN QUERY PLAN of the SQL the listing query runs for spec. The
+    // parameters are left NULL; SQLite plans without looking at their values.
+    private List<String> plan(Specification<Transaction> spec) {
+        transactionRepository.findDTOs(spec, NEWEST_FIRST, 50);
+        String sql = SqlRecorder.STATEMENTS.stream()
+                .filter(statement -> statement.contains(" from transactions "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        return jdbcTemplate.queryForList("EXPLAIN QUERY PLAN " + sql, parameters).stream()
+                .map(row -> (String) row.get("detail"))
+                .toList();
+    }
+
+    // A full table scan reads "SCAN <table or alias>" with nothing after it;
+    // an index scan names the index
+    private static void assertNoTableScan(List<String> plan) {
+        assertThat(plan).noneMatch(step -> step.matches("SCAN \\w+"));
+    }
+
+    private static TransactionFilter filter(String type, String materialType, LocalDateTime startDate,
+                                            LocalDateTime endDate, String party, String productName) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setType(type);
+        filter.setMaterialType(materialType);
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setParty(party);
+        filter.setProductName(productName);
+        return filter;
+    }
+}
@@ -0,0 +1,167 @@
+package com.warehouse.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sqlite.SQLiteDataSource;
+
+// Group commit and the one-at-a-time retry of DatabaseWriter, against a plain
+// SQLite file and a JDBC transaction manager
+class DatabaseWriterTest {
+
+    // Long enough for every write a test submits to join the first group
+    private static final long GROUP_WINDOW_MS = 200;
+
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DatabaseWriter writer;
+
+    @BeforeEach
+    void startWriter() {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dir.resolve("writer.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE items (name TEXT NOT NULL)");
+
+        writer = new DatabaseWriter();
+        ReflectionTestUtils.setField(writer, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(writer, "groupWindowMillis", GROUP_WINDOW_MS);
+        ReflectionTestUtils.setField(writer, "maxGroupSize", 64);
+        ReflectionTestUtils.setField(writer, "stopTimeoutMillis", 30_000L);
+        writer.start();
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void writesInTheSameWindowShareOneCommit() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(writer.submit(insert("item " + i)));
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertThat(count()).isEqualTo(10);
+        assertThat(writer.getStatistics())
+                .containsEntry("writes", 10L)
+                .containsEntry("commits", 1L)
+                .containsEntry("retriedGroups", 0L);
+    }
+
+    @Test
+    void failingWriteFailsOnlyItsOwnCaller() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String name = "item " + i;
+            futures.add(writer.submit(i == 2
+                    ? () -> {
+                        insert(name).get();
+                        throw new IllegalArgumentException("bad write");
+                    }
+                    : insert(name)));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            if (i == 2) {
+                assertThatThrownBy(futures.get(i)::join)
+                        .isInstanceOf(CompletionException.class)
+                        .hasCauseInstanceOf(IllegalArgumentException.class);
+            } else {
+                assertThat(futures.get(i).join()).isEqualTo(1);
+            }
+        }
+        // The failed write's insert was rolled back with it
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM items ORDER BY name", String.class))
+                .containsExactly("item 0", "item 1", "item 3", "item 4");
+        assertThat(writer.getStatistics())
+                .containsEntry("retriedGroups", 1L)
+                .containsEntry("writes", 4L);
+    }
+
+    @Test
+    void callFromTheWriterThreadRunsInline() {
+        String thread = writer.execute(() -> {
+            insert("outer").get();
+            return writer.execute(() -> {
+                insert("inner").get();
+                return Thread.currentThread().getName();
+            });
+        });
+
+        assertThat(thread).isEqualTo("database-writer");
+        assertThat(count()).isEqualTo(2);
+        assertThat(writer.getStatistics()).containsEntry("commits", 1L);
+    }
+
+    @Test
+    void stopFinishesQueuedWritesAndRejectsNewOnes() throws InterruptedException {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.submit(insert("item " + i)));
+        }
+        writer.stop();
+
+        assertThat(futures).allMatch(future -> future.isDone() && !future.isCompletedExceptionally());
+        assertThat(count()).isEqualTo(5);
+        assertThatThrownBy(() -> writer.submit(insert("late")))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stopFailsWritesStillQueuedAfterTheTimeout() throws InterruptedException {
+        ReflectionTestUtils.setField(writer, "stopTimeoutMillis", 100L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> busy = writer.submit(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return insert("busy").get();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> queued = writer.submit(insert("queued"));
+
+        writer.stop();
+
+        assertThatThrownBy(queued::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        // The write in progress still commits once it can finish
+        release.countDown();
+        assertThat(busy.join()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT name FROM items", String.class)).containsExactly("busy");
+    }
+
+    private Supplier<Integer> insert(String name) {
+        return () -> jdbcTemplate.update("INSERT INTO items (name) VALUES (?)", name);
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+    }
+}
@@ -0,0 +1,185 @@
+package com.warehouse.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.warehouse.controller.SyncController;
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.SyncBatchDTO;
+import com.warehouse.dto.SyncChangeDTO;
+import com.warehouse.dto.SyncResultDTO;
+import com.warehouse.repository.SyncRepository.Table;
+
+// Applies hand-built batches, as another site's /api/sync/changes would send
+// them, to a database migrated by Flyway. Every test uses its own source
+// sites and product codes, so the tests share the database without seeing
+// each other's rows.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "spring.jpa.show-sql=false")
+class SyncServiceTest {
+
+    private static final long CREATED_AT = 1_704_067_200_000L;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("warehouse-sync-test");
+        dir.toFile().deleteOnExit();
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dir.resolve("warehouse.db"));
+    }
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private SyncController syncController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void applyingTheSameBatchTwiceChangesNothing() {
+        SyncBatchDTO batch = batch("site-repeat", 0, 3,
+                row("repeat-1", 1000, "site-repeat", "P-REPEAT", 5, "Acme"),
+                row("repeat-2", 1000, "site-repeat", "P-REPEAT", 2, "Acme"),
+                deleted("repeat-3", 1000, "site-repeat"));
+
+        SyncResultDTO first = syncService.apply(batch);
+        List<Map<String, Object>> rows = rows("P-REPEAT");
+        List<Map<String, Object>> balances = balances("P-REPEAT");
+        List<Map<String, Object>> changes = changes("repeat-%");
+
+        SyncResultDTO second = syncService.apply(batch);
+
+        // The delete of a row never seen here is still recorded, as a tombstone
+        assertThat(first.getApplied()).isEqualTo(3);
+        assertThat(second.getApplied()).isZero();
+        assertThat(second.getSkipped()).isEqualTo(3);
+        assertThat(second.getWatermark()).isEqualTo(first.getWatermark());
+        assertThat(rows("P-REPEAT")).isEqualTo(rows).hasSize(2);
+        assertThat(balances("P-REPEAT")).isEqualTo(balances);
+        assertThat(changes("repeat-%")).isEqualTo(changes).hasSize(3);
+    }
+
+    // The later modifiedAt wins; for the same millisecond the greater origin
+    // does, whichever order the sites' batches arrive in
+    @Test
+    void lastWriterWinsTheSameWayInEitherOrder() {
+        syncService.apply(batch("site-b", 0, 1, row("tie-1", 5000, "site-b", "P-TIE-1", 1, "From B")));
+        syncService.apply(batch("site-c", 0, 1, row("tie-1", 5000, "site-c", "P-TIE-1", 2, "From C")));
+
+        syncService.apply(batch("site-c", 1, 2, row("tie-2", 5000, "site-c", "P-TIE-2", 2, "From C")));
+        syncService.apply(batch("site-b", 1, 2, row("tie-2", 5000, "site-b", "P-TIE-2", 1, "From B")));
+
+        syncService.apply(batch("site-b", 2, 3, row("tie-3", 6000, "site-b", "P-TIE-3", 1, "From B")));
+        syncService.apply(batch("site-c", 2, 3, row("tie-3", 5999, "site-c", "P-TIE-3", 2, "From C")));
+
+        assertThat(party("tie-1")).isEqualTo("From C");
+        assertThat(party("tie-2")).isEqualTo("From C");
+        assertThat(party("tie-3")).isEqualTo("From B");
+        assertThat(changes("tie-%")).extracting(change -> change.get("origin"))
+                .containsExactly("site-c", "site-c", "site-b");
+    }
+
+    @Test
+    void batchAfterTheWatermarkIsRefusedWithConflict() {
+        syncService.apply(batch("site-gap", 0, 4, row("gap-1", 1000, "site-gap", "P-GAP", 1, "Acme")));
+
+        ResponseEntity<ApiResponse<SyncResultDTO>> response = syncController.apply(
+                batch("site-gap", 6, 8, row("gap-2", 1000, "site-gap", "P-GAP", 1, "Acme")));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody().getMessage()).contains("since=4");
+        assertThat(rows("P-GAP")).hasSize(1);
+        assertThat(syncService.getStatus().get("peers").toString()).contains("siteId=site-gap, lastSeq=4");
+    }
+
+    @Test
+    void deleteThenReinsertOfTheSameUid() {
+        syncService.apply(batch("site-redo", 0, 1, row("redo-1", 1000, "site-redo", "P-REDO", 4, "Acme")));
+        syncService.apply(batch("site-redo", 1, 2, deleted("redo-1", 2000, "site-redo")));
+
+        assertThat(rows("P-REDO")).isEmpty();
+        assertThat(balances("P-REDO")).isEmpty();
+
+        // A copy of the row from before the delete stays deleted
+        syncService.apply(batch("site-old", 0, 1, row("redo-1", 1500, "site-old", "P-REDO", 4, "Acme")));
+        assertThat(rows("P-REDO")).isEmpty();
+
+        syncService.apply(batch("site-redo", 2, 3, row("redo-1", 3000, "site-redo", "P-REDO", 7, "Other")));
+
+        assertThat(rows("P-REDO")).singleElement()
+                .satisfies(row -> assertThat(row).containsEntry("uid", "redo-1").containsEntry("party", "Other"));
+        assertThat(balances("P-REDO")).singleElement()
+                .satisfies(balance -> assertThat(((Number) balance.get("balance")).doubleValue()).isEqualTo(7.0));
+        assertThat(changes("redo-%")).singleElement()
+                .satisfies(change -> assertThat(change).containsEntry("deleted", 0).containsEntry("origin", "site-redo"));
+    }
+
+    private static SyncBatchDTO batch(String source, long since, long until, SyncChangeDTO... changes) {
+        SyncBatchDTO batch = new SyncBatchDTO();
+        batch.setSiteId(source);
+        batch.setSince(since);
+        batch.setUntil(until);
+        batch.setHighWatermark(until);
+        batch.setColumns(Map.of(Table.TRANSACTIONS.getTableName(), Table.TRANSACTIONS.getColumns()));
+        List<SyncChangeDTO> list = new ArrayList<>(Arrays.asList(changes));
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).setSeq(since + i + 1);
+        }
+        batch.setChanges(list);
+        return batch;
+    }
+
+    // values in the order of Table.TRANSACTIONS columns
+    private static SyncChangeDTO row(String uid, long modifiedAt, String origin, String productCode,
+                                     double quantity, String party) {
+        SyncChangeDTO change = deleted(uid, modifiedAt, origin);
+        change.setDeleted(false);
+        change.setValues(Arrays.asList("", productCode, "Product " + productCode, quantity, "KG", "B1", "G1",
+                "RM", "IN", party, CREATED_AT));
+        return change;
+    }
+
+    private static SyncChangeDTO deleted(String uid, long modifiedAt, String origin) {
+        SyncChangeDTO change = new SyncChangeDTO();
+        change.setTable(Table.TRANSACTIONS.getTableName());
+        change.setUid(uid);
+        change.setDeleted(true);
+        change.setModifiedAt(modifiedAt);
+        change.setOrigin(origin);
+        return change;
+    }
+
+    private List<Map<String, Object>> rows(String productCode) {
+        return jdbcTemplate.queryForList("SELECT id, uid, product_code, quantity, party, created_at "
+                + "FROM transactions WHERE product_code = ? ORDER BY uid", productCode);
+    }
+
+    private List<Map<String, Object>> balances(String productCode) {
+        return jdbcTemplate.queryForList("SELECT * FROM stock_balances WHERE product_code = ?", productCode);
+    }
+
+    private List<Map<String, Object>> changes(String uidPattern) {
+        return jdbcTemplate.queryForList("SELECT seq, row_uid, deleted, modified_at, origin FROM change_log "
+                + "WHERE row_uid LIKE ? ORDER BY row_uid", uidPattern);
+    }
+
+    private String party(String uid) {
+        return jdbcTemplate.queryForObject("SELECT party FROM transactions WHERE uid = ?", String.class, uid);
+    }
+}
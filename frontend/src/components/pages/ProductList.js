@@ -42,7 +42,7 @@ const ProductList = () => {
   const fetchProducts = async () => {
     try {
       setLoading(true);
-      const response = await productService.getAllProducts();
+      const response = await productService.getProductSummaries();
       if (response.success) {
         setProducts(response.data);
       } else {
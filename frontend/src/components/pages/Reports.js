@@ -103,67 +103,21 @@ export default function Reports({ showToast }) {
     setFilteredTransactions(filtered);
   };
 
-  // Export to Excel
+  // Export to Excel: the server streams the filtered rows as a CSV download
   const exportToExcel = () => {
-    // Ensure filteredTransactions is an array
-    if (!Array.isArray(filteredTransactions)) {
-      console.error(
-        "FilteredTransactions is not an array:",
-        filteredTransactions
-      );
-      showToast("Error: Invalid data format for export", "error");
-      return;
-    }
-
-    // Create CSV content
-    const headers = [
-      "Barcode",
-      "Product Code",
-      "Product Name",
-      "Quantity",
-      "Unit",
-      "Batch No",
-      "GRN No",
-      "Material Type",
-      "Type",
-      "Party",
-      "Date",
-    ];
-
-    const csvContent = [
-      headers.join(","),
-      ...filteredTransactions.map((t) =>
-        [
-          t.barcode || "",
-          t.productCode || "",
-          t.productName || "",
-          t.quantity || "",
-          t.unit || "",
-          t.batchNo || "",
-          t.grnNo || "",
-          t.materialType || "",
-          t.type || "",
-          t.party || "",
-          formatIndianDate(t.createdAt, false),
-        ].join(",")
-      ),
-    ].join("\n");
+    const params = new URLSearchParams({ format: "csv" });
+    if (filters.fromDate) params.append("startDate", filters.fromDate);
+    if (filters.toDate) params.append("endDate", filters.toDate);
+    if (filters.typeFilter !== "all") params.append("type", filters.typeFilter);
 
-    // Create and download file
-    const blob = new Blob([csvContent], { type: "text/csv;charset=utf-8;" });
     const link = document.createElement("a");
-    const url = URL.createObjectURL(blob);
-    link.setAttribute("href", url);
-    link.setAttribute(
-      "download",
-      `transactions_${new Date().toISOString().split("T")[0]}.csv`
-    );
+    link.setAttribute("href", `/api/transactions/export?${params.toString()}`);
     link.style.visibility = "hidden";
     document.body.appendChild(link);
     link.click();
     document.body.removeChild(link);
 
-    showToast("Transactions exported successfully", "success");
+    showToast("Transactions export started", "success");
   };
 
   return (
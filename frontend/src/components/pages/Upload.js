@@ -23,9 +23,9 @@ const Upload = ({ showToast }) => {
       return;
     }
 
-    // Check file size (5MB limit)
-    if (file.size > 5 * 1024 * 1024) {
-      showToast("File size must be less than 5MB", "error");
+    // Check file size (200MB limit)
+    if (file.size > 200 * 1024 * 1024) {
+      showToast("File size must be less than 200MB", "error");
       return;
     }
 
@@ -41,8 +41,19 @@ const Upload = ({ showToast }) => {
         },
       });
 
+      // The upload is processed in the background; poll the job until it finishes
+      let job = response.data;
+      while (job.state === "QUEUED" || job.state === "RUNNING") {
+        await new Promise((resolve) => setTimeout(resolve, 1000));
+        job = (await api.get(`/transactions/upload/${job.jobId}`)).data;
+      }
+
+      if (job.state === "FAILED") {
+        throw new Error(job.message);
+      }
+
       showToast(
-        `File uploaded successfully! ${response.data.processed} transactions processed.`,
+        `File uploaded successfully! ${job.rowsPersisted} transactions processed.`,
         "success"
       );
       setFile(null);
@@ -51,7 +62,7 @@ const Upload = ({ showToast }) => {
     } catch (error) {
       console.error("Upload error:", error);
       const errorMessage =
-        error.response?.data?.message || "Error uploading file";
+        error.response?.data?.message || error.message || "Error uploading file";
       showToast(errorMessage, "error");
     } finally {
       setIsUploading(false);
@@ -79,7 +90,7 @@ const Upload = ({ showToast }) => {
               />
               <div className="form-text">
                 Only Excel files (.xlsx, .xls) are allowed. Maximum file size:
-                5MB
+                200MB
               </div>
             </div>
 
@@ -28,6 +28,7 @@ api.interceptors.response.use(
 
 export const productService = {
   getAllProducts: () => api.get("/products"),
+  getProductSummaries: () => api.get("/products/summary"),
   getProductById: (id) => api.get(`/products/${id}`),
   addProduct: (productData) => api.post("/products", productData),
   deleteProduct: (id) => api.delete(`/products/${id}`),